@@ -3,9 +3,11 @@ package org.example.apigateway;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClient;
 
 @SpringBootApplication
 @EnableDiscoveryClient
+@LoadBalancerClient(name = "place-service", configuration = PlaceServiceLoadBalancerConfig.class)
 public class ApiGatewayApplication {
 
     public static void main(String[] args) {
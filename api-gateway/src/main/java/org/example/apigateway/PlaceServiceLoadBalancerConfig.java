@@ -0,0 +1,22 @@
+package org.example.apigateway;
+
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Load-balancer configuration for place-service only. Deliberately not annotated with
+ * {@code @Configuration}: it is registered through {@code @LoadBalancerClient} so it does
+ * not leak into the other services' load balancers.
+ */
+public class PlaceServiceLoadBalancerConfig {
+
+    @Bean
+    public ServiceInstanceListSupplier placeServiceInstanceListSupplier(ConfigurableApplicationContext context) {
+        return ServiceInstanceListSupplier.builder()
+                .withDiscoveryClient()
+                .withCaching()
+                .with((ctx, delegate) -> new SectionAwareServiceInstanceListSupplier(delegate))
+                .build(context);
+    }
+}
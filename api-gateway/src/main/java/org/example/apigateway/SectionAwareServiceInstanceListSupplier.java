@@ -0,0 +1,88 @@
+package org.example.apigateway;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.loadbalancer.core.DelegatingServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Narrows place-service instances to the ones that own the requested warehouse section.
+ * The section is taken from the X-Section-Code header or from a /section/{code} path segment;
+ * instances advertise their sections through the "sections" Eureka metadata entry
+ * (an empty entry means the instance owns every section).
+ */
+public class SectionAwareServiceInstanceListSupplier extends DelegatingServiceInstanceListSupplier {
+
+    public static final String SECTION_HEADER = "X-Section-Code";
+    public static final String SECTIONS_METADATA = "sections";
+
+    private static final Pattern SECTION_PATH = Pattern.compile("/section/([^/?]+)");
+
+    public SectionAwareServiceInstanceListSupplier(ServiceInstanceListSupplier delegate) {
+        super(delegate);
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get() {
+        return getDelegate().get();
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get(Request request) {
+        String section = resolveSection(request);
+        if (section == null) {
+            return getDelegate().get(request);
+        }
+        return getDelegate().get(request).map(instances -> filterBySection(instances, section));
+    }
+
+    private List<ServiceInstance> filterBySection(List<ServiceInstance> instances, String section) {
+        List<ServiceInstance> owners = instances.stream()
+                .filter(instance -> ownsSection(instance, section))
+                .collect(Collectors.toList());
+        // Fall back to plain load balancing rather than failing when no owner is registered
+        return owners.isEmpty() ? instances : owners;
+    }
+
+    private boolean ownsSection(ServiceInstance instance, String section) {
+        String sections = instance.getMetadata().get(SECTIONS_METADATA);
+        if (sections == null || sections.isBlank()) {
+            return true;
+        }
+        return Arrays.stream(sections.split(","))
+                .map(String::trim)
+                .anyMatch(section::equalsIgnoreCase);
+    }
+
+    private String resolveSection(Request request) {
+        if (!(request.getContext() instanceof RequestDataContext context)) {
+            return null;
+        }
+        RequestData requestData = context.getClientRequest();
+        if (requestData == null) {
+            return null;
+        }
+        if (requestData.getHeaders() != null) {
+            String header = requestData.getHeaders().getFirst(SECTION_HEADER);
+            if (header != null && !header.isBlank()) {
+                return header.trim();
+            }
+        }
+        if (requestData.getUrl() != null) {
+            Matcher matcher = SECTION_PATH.matcher(requestData.getUrl().getPath());
+            if (matcher.find()) {
+                return matcher.group(1);
+            }
+        }
+        return null;
+    }
+}
@@ -169,7 +169,7 @@ public class ConsoleController implements CommandLineRunner {
         System.out.print("Enter order ID: ");
         String orderId = scanner.nextLine();
         OrderDTO order = orderServiceClient.confirmOrderById(orderId);
-        System.out.println("Order confirmed: " + order.getOrderId());
+        System.out.println("Order confirmation started: " + order.getOrderId() + ", Status: " + order.getStatus());
     }
 
     private void handleCancelOrder(Scanner scanner) {
@@ -0,0 +1,63 @@
+package org.example.orderservice.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs a call to another service behind that service's bulkhead and circuit breaker.
+ * <p>
+ * The bulkhead caps concurrent calls per downstream so a slow service cannot take every
+ * request thread; the circuit breaker opens on a high failure or slow-call rate and then
+ * fails calls immediately. Both rejections surface as {@link ResourceAccessException},
+ * which the clients already treat as "service unavailable". 4xx responses are business
+ * errors and are not counted as failures (see resilience4j.* in application.properties).
+ */
+@Component
+public class DownstreamCallGuard {
+
+    public static final String PLACE_SERVICE = "place-service";
+    public static final String PAYMENT_SERVICE = "payment-service";
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final MeterRegistry meterRegistry;
+
+    public DownstreamCallGuard(CircuitBreakerRegistry circuitBreakerRegistry,
+                               BulkheadRegistry bulkheadRegistry,
+                               MeterRegistry meterRegistry) {
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T call(String downstream, Supplier<T> call) {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(downstream);
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(downstream);
+        // Bulkhead outside the breaker: calls rejected for concurrency are not counted as failures
+        Supplier<T> guarded = Bulkhead.decorateSupplier(bulkhead,
+                CircuitBreaker.decorateSupplier(circuitBreaker, call));
+        try {
+            return guarded.get();
+        } catch (CallNotPermittedException e) {
+            countRejection(downstream, "circuit-open");
+            throw new ResourceAccessException("circuit breaker '" + downstream + "' is "
+                    + circuitBreaker.getState());
+        } catch (BulkheadFullException e) {
+            countRejection(downstream, "bulkhead-full");
+            throw new ResourceAccessException("too many concurrent calls to " + downstream);
+        }
+    }
+
+    private void countRejection(String downstream, String reason) {
+        meterRegistry.counter("downstream.calls.rejected", "downstream", downstream, "reason", reason).increment();
+    }
+}
@@ -3,6 +3,7 @@ package org.example.orderservice.client;
 import org.example.orderservice.dto.PaymentServiceDTO;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
@@ -11,29 +12,34 @@ import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.ResourceAccessException;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Component
 public class PaymentServiceClient {
 
     private final RestTemplate restTemplate;
     private final String paymentServiceUrl;
+    private final DownstreamCallGuard guard;
 
     public PaymentServiceClient(RestTemplate restTemplate,
-                               @Value("${payment.service.url}") String paymentServiceUrl) {
+                               @Value("${payment.service.url}") String paymentServiceUrl,
+                               DownstreamCallGuard guard) {
         this.restTemplate = restTemplate;
         this.paymentServiceUrl = paymentServiceUrl;
+        this.guard = guard;
     }
 
     public List<PaymentServiceDTO> getPaymentsByOrderId(String orderId) {
         try {
             String url = paymentServiceUrl + "/api/payments/order/" + orderId;
-            ResponseEntity<List<PaymentServiceDTO>> response = restTemplate.exchange(
+            ResponseEntity<List<PaymentServiceDTO>> response = guard.call(DownstreamCallGuard.PAYMENT_SERVICE, () -> restTemplate.exchange(
                     url,
                     HttpMethod.GET,
                     null,
                     new ParameterizedTypeReference<List<PaymentServiceDTO>>() {}
-            );
+            ));
             return response.getBody() != null ? response.getBody() : new ArrayList<>();
         } catch (HttpClientErrorException e) {
             // Fail-silent: return empty list if payment service returns error
@@ -48,6 +54,29 @@ public class PaymentServiceClient {
         }
     }
 
+    /**
+     * IDs of the given orders that have at least one payment, fetched in one call.
+     */
+    public Set<String> getPaidOrderIds(List<String> orderIds) {
+        try {
+            String url = paymentServiceUrl + "/api/payments/orders/paid";
+            ResponseEntity<List<String>> response = guard.call(DownstreamCallGuard.PAYMENT_SERVICE, () -> restTemplate.exchange(
+                    url,
+                    HttpMethod.POST,
+                    new HttpEntity<>(orderIds),
+                    new ParameterizedTypeReference<List<String>>() {}
+            ));
+            return response.getBody() != null ? new HashSet<>(response.getBody()) : new HashSet<>();
+        } catch (HttpClientErrorException e) {
+            // Fail-silent: no order counts as paid, so none is confirmed
+            System.err.println("Payment Service error (fail-silent): " + e.getMessage());
+            return new HashSet<>();
+        } catch (ResourceAccessException e) {
+            System.err.println("Payment Service unavailable (fail-silent): " + e.getMessage());
+            return new HashSet<>();
+        }
+    }
+
     public boolean hasPaymentForOrder(String orderId) {
         List<PaymentServiceDTO> payments = getPaymentsByOrderId(orderId);
         return payments != null && !payments.isEmpty();
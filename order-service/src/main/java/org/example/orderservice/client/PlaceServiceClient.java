@@ -1,8 +1,10 @@
 package org.example.orderservice.client;
 
+import org.example.orderservice.dto.PlaceCountDTO;
 import org.example.orderservice.dto.PlaceServiceDTO;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -19,22 +21,25 @@ public class PlaceServiceClient {
 
     private final RestTemplate restTemplate;
     private final String placeServiceUrl;
+    private final DownstreamCallGuard guard;
 
     public PlaceServiceClient(RestTemplate restTemplate, 
-                             @Value("${place.service.url}") String placeServiceUrl) {
+                             @Value("${place.service.url}") String placeServiceUrl,
+                             DownstreamCallGuard guard) {
         this.restTemplate = restTemplate;
         this.placeServiceUrl = placeServiceUrl;
+        this.guard = guard;
     }
 
     public List<PlaceServiceDTO> getFreePlacesByType(String type) {
         try {
             String url = placeServiceUrl + "/api/places/free/type/" + type;
-            ResponseEntity<List<PlaceServiceDTO>> response = restTemplate.exchange(
+            ResponseEntity<List<PlaceServiceDTO>> response = guard.call(DownstreamCallGuard.PLACE_SERVICE, () -> restTemplate.exchange(
                     url,
                     HttpMethod.GET,
                     null,
                     new ParameterizedTypeReference<List<PlaceServiceDTO>>() {}
-            );
+            ));
             List<PlaceServiceDTO> places = response.getBody() != null ? response.getBody() : new ArrayList<>();
             
             // Validate response using JSON schema (fail-fast)
@@ -53,11 +58,25 @@ public class PlaceServiceClient {
         }
     }
 
+    public long countFreePlacesByType(String type) {
+        try {
+            String url = placeServiceUrl + "/api/places/free/count?type={type}";
+            PlaceCountDTO count = guard.call(DownstreamCallGuard.PLACE_SERVICE,
+                    () -> restTemplate.getForObject(url, PlaceCountDTO.class, type));
+            return count != null ? count.getFree() : 0;
+        } catch (HttpClientErrorException e) {
+            throw new RuntimeException("Place Service error: " + e.getMessage() +
+                    " (HTTP " + e.getStatusCode().value() + ")");
+        } catch (ResourceAccessException e) {
+            throw new RuntimeException("Place Service unavailable: " + e.getMessage());
+        }
+    }
+
     public void givePlacesToUser(List<String> placeIds, String userId) {
         try {
             String url = placeServiceUrl + "/api/places/give";
             GivePlacesRequest request = new GivePlacesRequest(placeIds, userId);
-            restTemplate.postForEntity(url, request, Void.class);
+            guard.call(DownstreamCallGuard.PLACE_SERVICE, () -> restTemplate.postForEntity(url, request, Void.class));
         } catch (HttpClientErrorException e) {
             throw new RuntimeException("Failed to give places: " + e.getMessage());
         } catch (ResourceAccessException e) {
@@ -65,12 +84,85 @@ public class PlaceServiceClient {
         }
     }
 
-    public void makePlacesFree(List<String> placeIds) {
+    /**
+     * Claim racks under {@code claimKey}. Repeating the call with the same key returns the racks
+     * the key already holds, so a claim whose answer was lost can be retried safely.
+     */
+    public List<String> claimPlaces(String type, int count, String userId, String claimKey) {
+        try {
+            String url = placeServiceUrl + "/api/places/claim";
+            ClaimPlacesRequest request = new ClaimPlacesRequest(type, count, userId, claimKey);
+            ResponseEntity<List<String>> response = guard.call(DownstreamCallGuard.PLACE_SERVICE, () -> restTemplate.exchange(
+                    url,
+                    HttpMethod.POST,
+                    new HttpEntity<>(request),
+                    new ParameterizedTypeReference<List<String>>() {}
+            ));
+            return response.getBody() != null ? response.getBody() : new ArrayList<>();
+        } catch (HttpClientErrorException e) {
+            throw new RuntimeException("Failed to claim places: " + e.getMessage());
+        } catch (ResourceAccessException e) {
+            throw new RuntimeException("Place Service unavailable: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Claim racks for several requests in one call; results come back in request order.
+     */
+    public List<ClaimPlacesResult> claimPlacesBatch(List<ClaimPlacesRequest> requests) {
+        try {
+            String url = placeServiceUrl + "/api/places/claim-batch";
+            ResponseEntity<List<ClaimPlacesResult>> response = guard.call(DownstreamCallGuard.PLACE_SERVICE, () -> restTemplate.exchange(
+                    url,
+                    HttpMethod.POST,
+                    new HttpEntity<>(requests),
+                    new ParameterizedTypeReference<List<ClaimPlacesResult>>() {}
+            ));
+            return response.getBody() != null ? response.getBody() : new ArrayList<>();
+        } catch (HttpClientErrorException e) {
+            throw new RuntimeException("Failed to claim places: " + e.getMessage());
+        } catch (ResourceAccessException e) {
+            throw new RuntimeException("Place Service unavailable: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Free the racks still held under {@code claimKey}; racks that have since been freed or
+     * taken by another claim are left alone. Returns the racks freed.
+     */
+    public List<String> releaseClaim(String claimKey) {
+        try {
+            String url = placeServiceUrl + "/api/places/claims/{claimKey}/release";
+            ResponseEntity<List<String>> response = guard.call(DownstreamCallGuard.PLACE_SERVICE, () -> restTemplate.exchange(
+                    url,
+                    HttpMethod.POST,
+                    null,
+                    new ParameterizedTypeReference<List<String>>() {},
+                    claimKey
+            ));
+            return response.getBody() != null ? response.getBody() : new ArrayList<>();
+        } catch (HttpClientErrorException e) {
+            throw new RuntimeException("Failed to release claim: " + e.getMessage());
+        } catch (ResourceAccessException e) {
+            throw new RuntimeException("Place Service unavailable: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Release several claim keys in one call, as {@link #releaseClaim(String)} does for one.
+     */
+    public List<String> releaseClaims(List<String> claimKeys) {
         try {
-            String url = placeServiceUrl + "/api/places/free";
-            restTemplate.postForEntity(url, placeIds, Void.class);
+            String url = placeServiceUrl + "/api/places/claims/release";
+            ResponseEntity<List<String>> response = guard.call(DownstreamCallGuard.PLACE_SERVICE, () -> restTemplate.exchange(
+                    url,
+                    HttpMethod.POST,
+                    new HttpEntity<>(claimKeys),
+                    new ParameterizedTypeReference<List<String>>() {}
+            ));
+            return response.getBody() != null ? response.getBody() : new ArrayList<>();
         } catch (HttpClientErrorException e) {
-            throw new RuntimeException("Failed to free places: " + e.getMessage());
+            throw new RuntimeException("Failed to release claims: " + e.getMessage());
         } catch (ResourceAccessException e) {
             throw new RuntimeException("Place Service unavailable: " + e.getMessage());
         }
@@ -104,5 +196,77 @@ public class PlaceServiceClient {
             this.userId = userId;
         }
     }
-}
 
+    public static class ClaimPlacesRequest {
+        private String type;
+        private Integer count;
+        private String userId;
+        private String claimKey;
+
+        public ClaimPlacesRequest() {
+        }
+
+        public ClaimPlacesRequest(String type, Integer count, String userId, String claimKey) {
+            this.type = type;
+            this.count = count;
+            this.userId = userId;
+            this.claimKey = claimKey;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public void setType(String type) {
+            this.type = type;
+        }
+
+        public Integer getCount() {
+            return count;
+        }
+
+        public void setCount(Integer count) {
+            this.count = count;
+        }
+
+        public String getUserId() {
+            return userId;
+        }
+
+        public void setUserId(String userId) {
+            this.userId = userId;
+        }
+
+        public String getClaimKey() {
+            return claimKey;
+        }
+
+        public void setClaimKey(String claimKey) {
+            this.claimKey = claimKey;
+        }
+    }
+
+    public static class ClaimPlacesResult {
+        private List<String> placeIds;
+        private String error;
+
+        public ClaimPlacesResult() {
+        }
+
+        public List<String> getPlaceIds() {
+            return placeIds;
+        }
+
+        public void setPlaceIds(List<String> placeIds) {
+            this.placeIds = placeIds;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
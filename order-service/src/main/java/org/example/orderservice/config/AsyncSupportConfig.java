@@ -0,0 +1,43 @@
+package org.example.orderservice.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Streamed responses (the NDJSON order export) are written on their own bounded pool
+ * under an explicit timeout. Without it the servlet container's 30 second async default
+ * applies and cuts off large exports mid-stream.
+ */
+@Configuration
+public class AsyncSupportConfig implements WebMvcConfigurer, DisposableBean {
+
+    private final long timeoutMs;
+    private final ThreadPoolTaskExecutor executor;
+
+    public AsyncSupportConfig(@Value("${order.stream.timeout-ms:600000}") long timeoutMs,
+                              @Value("${order.stream.pool-size:16}") int poolSize,
+                              @Value("${order.stream.queue-capacity:100}") int queueCapacity) {
+        this.timeoutMs = timeoutMs;
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("stream-");
+        executor.initialize();
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(timeoutMs);
+        configurer.setTaskExecutor(executor);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.orderservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded pool for calls to other services that run concurrently within one request.
+ * When the pool and its queue are full, new calls are rejected instead of piling up.
+ */
+@Configuration
+public class RemoteCallExecutorConfig {
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService remoteCallExecutor(@Value("${order.remote-calls.pool-size:16}") int poolSize,
+                                              @Value("${order.remote-calls.queue-capacity:100}") int queueCapacity) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "remote-call-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
@@ -1,17 +1,77 @@
 package org.example.orderservice.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.classic.HttpClient;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+/**
+ * Load-balanced RestTemplate backed by a pooled Apache HttpClient.
+ * <p>
+ * Connections are kept alive and reused per service instance (the load balancer rewrites
+ * the URI before the request reaches the pool, so each instance is its own route).
+ * Connect, response and pool-acquire timeouts bound every call, so a hung instance fails
+ * the request instead of holding the thread. Pool usage is published as httpcomponents.*
+ * metrics under the "downstream" pool name.
+ */
 @Configuration
 public class RestTemplateConfig {
-    
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager downstreamConnectionManager(
+            @Value("${order.http.max-connections:100}") int maxConnections,
+            @Value("${order.http.max-connections-per-route:50}") int maxConnectionsPerRoute,
+            @Value("${order.http.connect-timeout-ms:1000}") long connectTimeoutMs,
+            @Value("${order.http.read-timeout-ms:5000}") long readTimeoutMs,
+            @Value("${order.http.connection-ttl-ms:300000}") long connectionTtlMs,
+            MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setTimeToLive(TimeValue.ofMilliseconds(connectionTtlMs))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "downstream").bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean
+    public HttpClient downstreamHttpClient(PoolingHttpClientConnectionManager downstreamConnectionManager,
+                                           @Value("${order.http.read-timeout-ms:5000}") long readTimeoutMs,
+                                           @Value("${order.http.pool-acquire-timeout-ms:1000}") long poolAcquireTimeoutMs,
+                                           @Value("${order.http.idle-eviction-ms:30000}") long idleEvictionMs) {
+        return HttpClients.custom()
+                .setConnectionManager(downstreamConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolAcquireTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleEvictionMs))
+                // Mutating calls (claim, give, release) must not be replayed on a reused connection
+                .disableAutomaticRetries()
+                .build();
+    }
+
     @Bean
     @LoadBalanced
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(HttpClient downstreamHttpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(downstreamHttpClient));
     }
 }
-
@@ -1,13 +1,23 @@
 package org.example.orderservice.controller;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.example.orderservice.dto.ConfirmOrdersBatchRequestDTO;
 import org.example.orderservice.dto.CreateOrderRequestDTO;
+import org.example.orderservice.dto.OrderConfirmationResultDTO;
+import org.example.orderservice.dto.OrderConfirmationStatusDTO;
 import org.example.orderservice.dto.OrderDTO;
+import org.example.orderservice.dto.OrderPageDTO;
+import org.example.orderservice.service.IdempotencyService;
+import org.example.orderservice.service.OrderConfirmationSaga;
 import org.example.orderservice.service.OrderService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -16,13 +26,28 @@ import java.util.List;
 @RequestMapping("/api/orders")
 public class OrderController {
 
+    private static final long MAX_CONFIRMATION_WAIT_MS = 30000;
+    private static final TypeReference<OrderDTO> ORDER = new TypeReference<>() {};
+    private static final TypeReference<List<OrderConfirmationResultDTO>> CONFIRMATION_RESULTS =
+            new TypeReference<>() {};
+
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private OrderConfirmationSaga orderConfirmationSaga;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
     @PostMapping
-    public ResponseEntity<OrderDTO> createOrderForPlaces(@RequestBody CreateOrderRequestDTO request) {
-        OrderDTO order = orderService.createOrderForPlaces(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(order);
+    public ResponseEntity<OrderDTO> createOrderForPlaces(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestBody CreateOrderRequestDTO request) {
+        return idempotencyService.execute("POST /api/orders", idempotencyKey, request, ORDER, () -> {
+            OrderDTO order = orderService.createOrderForPlaces(request);
+            return ResponseEntity.status(HttpStatus.CREATED).body(order);
+        });
     }
 
     @GetMapping("/date-range")
@@ -33,6 +58,36 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    @GetMapping("/date-range/page")
+    public ResponseEntity<OrderPageDTO> getOrdersByDateRangePage(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        OrderPageDTO page = orderService.getOrdersByDateRangePage(startDate, endDate, cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping(value = "/date-range/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamOrdersByDateRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        StreamingResponseBody body = out -> orderService.streamOrdersByDateRange(startDate, endDate, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<OrderPageDTO> getOrdersByUserId(
+            @PathVariable String userId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        OrderPageDTO page = orderService.getOrdersByUserId(userId, status, cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping("/{orderId}")
     public ResponseEntity<OrderDTO> getOrderById(@PathVariable String orderId) {
         OrderDTO order = orderService.getOrderById(orderId);
@@ -44,27 +99,53 @@ public class OrderController {
     }
 
     @PutMapping("/{orderId}/confirm")
-    public ResponseEntity<OrderDTO> confirmOrderById(@PathVariable String orderId) {
-        OrderDTO order = orderService.confirmOrderById(orderId);
-        return ResponseEntity.ok(order);
+    public ResponseEntity<OrderDTO> confirmOrderById(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @PathVariable String orderId) {
+        return idempotencyService.execute("PUT /api/orders/" + orderId + "/confirm", idempotencyKey, null, ORDER,
+                () -> ResponseEntity.status(HttpStatus.ACCEPTED).body(orderService.confirmOrderById(orderId)));
+    }
+
+    @GetMapping("/{orderId}/confirmation")
+    public DeferredResult<ResponseEntity<OrderConfirmationStatusDTO>> getConfirmationStatus(
+            @PathVariable String orderId,
+            @RequestParam(defaultValue = "0") long waitMs) {
+        return orderConfirmationSaga.awaitConfirmation(orderId, Math.min(waitMs, MAX_CONFIRMATION_WAIT_MS));
+    }
+
+    @PostMapping("/confirm-batch")
+    public ResponseEntity<List<OrderConfirmationResultDTO>> confirmOrdersBatch(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestBody ConfirmOrdersBatchRequestDTO request) {
+        return idempotencyService.execute("POST /api/orders/confirm-batch", idempotencyKey, request,
+                CONFIRMATION_RESULTS, () -> {
+                    List<OrderConfirmationResultDTO> results = orderService.confirmOrdersBatch(request.getOrderIds());
+                    return ResponseEntity.ok(results);
+                });
     }
 
     @PutMapping("/{orderId}/cancel")
-    public ResponseEntity<OrderDTO> cancelOrderById(@PathVariable String orderId) {
-        OrderDTO order = orderService.cancelOrderById(orderId);
-        return ResponseEntity.ok(order);
+    public ResponseEntity<OrderDTO> cancelOrderById(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @PathVariable String orderId) {
+        return idempotencyService.execute("PUT /api/orders/" + orderId + "/cancel", idempotencyKey, null, ORDER,
+                () -> ResponseEntity.ok(orderService.cancelOrderById(orderId)));
     }
 
     @PutMapping("/{orderId}/start")
-    public ResponseEntity<OrderDTO> startOrderById(@PathVariable String orderId) {
-        OrderDTO order = orderService.startOrderById(orderId);
-        return ResponseEntity.ok(order);
+    public ResponseEntity<OrderDTO> startOrderById(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @PathVariable String orderId) {
+        return idempotencyService.execute("PUT /api/orders/" + orderId + "/start", idempotencyKey, null, ORDER,
+                () -> ResponseEntity.ok(orderService.startOrderById(orderId)));
     }
 
     @PutMapping("/{orderId}/finish")
-    public ResponseEntity<OrderDTO> finishOrderById(@PathVariable String orderId) {
-        OrderDTO order = orderService.finishOrderById(orderId);
-        return ResponseEntity.ok(order);
+    public ResponseEntity<OrderDTO> finishOrderById(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @PathVariable String orderId) {
+        return idempotencyService.execute("PUT /api/orders/" + orderId + "/finish", idempotencyKey, null, ORDER,
+                () -> ResponseEntity.ok(orderService.finishOrderById(orderId)));
     }
 }
 
@@ -0,0 +1,22 @@
+package org.example.orderservice.dto;
+
+import java.util.List;
+
+public class ConfirmOrdersBatchRequestDTO {
+    private List<String> orderIds;
+
+    public ConfirmOrdersBatchRequestDTO() {
+    }
+
+    public ConfirmOrdersBatchRequestDTO(List<String> orderIds) {
+        this.orderIds = orderIds;
+    }
+
+    public List<String> getOrderIds() {
+        return orderIds;
+    }
+
+    public void setOrderIds(List<String> orderIds) {
+        this.orderIds = orderIds;
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.orderservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderConfirmationResultDTO {
+    private String orderId;
+    private boolean confirmed;
+    private OrderDTO order;
+    private String error;
+
+    public OrderConfirmationResultDTO() {
+    }
+
+    public OrderConfirmationResultDTO(String orderId, boolean confirmed, OrderDTO order, String error) {
+        this.orderId = orderId;
+        this.confirmed = confirmed;
+        this.order = order;
+        this.error = error;
+    }
+
+    public static OrderConfirmationResultDTO confirmed(OrderDTO order) {
+        return new OrderConfirmationResultDTO(order.getOrderId(), true, order, null);
+    }
+
+    public static OrderConfirmationResultDTO failed(String orderId, String error) {
+        return new OrderConfirmationResultDTO(orderId, false, null, error);
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+
+    public boolean isConfirmed() {
+        return confirmed;
+    }
+
+    public void setConfirmed(boolean confirmed) {
+        this.confirmed = confirmed;
+    }
+
+    public OrderDTO getOrder() {
+        return order;
+    }
+
+    public void setOrder(OrderDTO order) {
+        this.order = order;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.orderservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderConfirmationStatusDTO {
+    private String orderId;
+    private String status;
+    private int attempts;
+    private String error;
+    private OrderDTO order;
+
+    public OrderConfirmationStatusDTO() {
+    }
+
+    public OrderConfirmationStatusDTO(String orderId, String status, int attempts, String error, OrderDTO order) {
+        this.orderId = orderId;
+        this.status = status;
+        this.attempts = attempts;
+        this.error = error;
+        this.order = order;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public OrderDTO getOrder() {
+        return order;
+    }
+
+    public void setOrder(OrderDTO order) {
+        this.order = order;
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.orderservice.dto;
+
+import java.util.List;
+
+public class OrderPageDTO {
+    private List<OrderDTO> items;
+    private String nextCursor;
+
+    public OrderPageDTO() {
+    }
+
+    public OrderPageDTO(List<OrderDTO> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<OrderDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<OrderDTO> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -8,6 +8,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -32,6 +34,25 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
 
+    /**
+     * Handle exceptions that carry their own status (e.g. 409/422 for Idempotency-Key misuse)
+     */
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<Map<String, Object>> handleResponseStatusException(ResponseStatusException ex) {
+        logger.error("Request rejected: {}", ex.getReason());
+        return buildErrorResponse(HttpStatus.valueOf(ex.getStatusCode().value()), ex.getReason());
+    }
+
+    /**
+     * Handle streamed responses that ran past the async timeout (503 Service Unavailable)
+     */
+    @ExceptionHandler(AsyncRequestTimeoutException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ResponseEntity<Map<String, Object>> handleAsyncRequestTimeout(AsyncRequestTimeoutException ex) {
+        logger.warn("Async request timed out");
+        return buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, "Request timed out");
+    }
+
     /**
      * Handle runtime exceptions (400 Bad Request for business logic errors)
      */
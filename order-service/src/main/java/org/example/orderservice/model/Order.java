@@ -1,14 +1,22 @@
 package org.example.orderservice.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_start_end", columnList = "start_date, end_date"),
+        @Index(name = "idx_orders_end_start", columnList = "end_date, start_date"),
+        @Index(name = "idx_orders_start_id", columnList = "start_date, order_id"),
+        @Index(name = "idx_orders_user_id", columnList = "user_id, order_id")
+})
 public class Order {
     @Id
+    @Column(name = "order_id")
     private String orderId;
     
     @Column(name = "user_id")
@@ -27,7 +35,9 @@ public class Order {
     @Column(name = "desired_type")
     private RackType desiredType;
     
+    // Paged list queries cannot fetch-join the collection, so load it for up to 100 orders per select
     @ElementCollection
+    @BatchSize(size = 100)
     @CollectionTable(name = "order_assigned_racks", joinColumns = @JoinColumn(name = "order_id"))
     @Column(name = "rack_id")
     private List<String> assignedRacks = new ArrayList<>();
@@ -119,7 +129,7 @@ public class Order {
     }
 
     public enum OrderStatus {
-        CREATED, CONFIRMED, ACTIVE, FINISHED, CANCELLED
+        CREATED, CONFIRMING, CONFIRMED, ACTIVE, FINISHED, CANCELLED
     }
 }
 
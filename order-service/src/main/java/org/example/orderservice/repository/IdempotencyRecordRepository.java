@@ -0,0 +1,47 @@
+package org.example.orderservice.repository;
+
+import org.example.orderservice.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+
+    /**
+     * Record the response of the execution that created the record at {@code createdAt}.
+     * Returns 0 if that execution no longer owns the key.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.status = :completed, r.responseStatus = :responseStatus, " +
+           "r.responseBody = :responseBody " +
+           "WHERE r.requestKey = :requestKey AND r.createdAt = :createdAt AND r.status = :inProgress")
+    int complete(@Param("requestKey") String requestKey,
+                 @Param("createdAt") LocalDateTime createdAt,
+                 @Param("responseStatus") Integer responseStatus,
+                 @Param("responseBody") String responseBody,
+                 @Param("completed") IdempotencyRecord.Status completed,
+                 @Param("inProgress") IdempotencyRecord.Status inProgress);
+
+    /**
+     * Release the key held by the execution that created the record at {@code createdAt}.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r " +
+           "WHERE r.requestKey = :requestKey AND r.createdAt = :createdAt AND r.status = :inProgress")
+    int release(@Param("requestKey") String requestKey,
+                @Param("createdAt") LocalDateTime createdAt,
+                @Param("inProgress") IdempotencyRecord.Status inProgress);
+}
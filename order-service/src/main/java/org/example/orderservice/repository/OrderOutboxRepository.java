@@ -0,0 +1,58 @@
+package org.example.orderservice.repository;
+
+import org.example.orderservice.model.OrderOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OrderOutboxRepository extends JpaRepository<OrderOutboxEvent, Long> {
+    List<OrderOutboxEvent> findByStatusInAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+            Collection<OrderOutboxEvent.Status> statuses, LocalDateTime now, Pageable pageable);
+
+    Optional<OrderOutboxEvent> findFirstByOrderIdOrderByIdDesc(String orderId);
+
+    /**
+     * Take a due event for processing until {@code leaseUntil} under a new lease token.
+     * Returns 0 if another dispatcher got it first. An IN_PROGRESS event whose lease ran
+     * out is due again, and taking it over replaces the previous holder's token.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE OrderOutboxEvent e SET e.status = :inProgress, e.nextAttemptAt = :leaseUntil, " +
+           "e.leaseToken = :leaseToken, e.updatedAt = :now " +
+           "WHERE e.id = :id AND e.status IN :claimable AND e.nextAttemptAt <= :now")
+    int acquire(@Param("id") Long id,
+                @Param("claimable") Collection<OrderOutboxEvent.Status> claimable,
+                @Param("inProgress") OrderOutboxEvent.Status inProgress,
+                @Param("now") LocalDateTime now,
+                @Param("leaseUntil") LocalDateTime leaseUntil,
+                @Param("leaseToken") String leaseToken);
+
+    /**
+     * End the lease held under {@code leaseToken}, moving the event to {@code status}.
+     * Returns 0 if the lease has been taken over meanwhile, in which case nothing changes.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE OrderOutboxEvent e SET e.status = :status, e.attempts = :attempts, " +
+           "e.nextAttemptAt = :nextAttemptAt, e.lastError = :lastError, e.leaseToken = null, e.updatedAt = :now " +
+           "WHERE e.id = :id AND e.status = :inProgress AND e.leaseToken = :leaseToken")
+    int release(@Param("id") Long id,
+                @Param("leaseToken") String leaseToken,
+                @Param("inProgress") OrderOutboxEvent.Status inProgress,
+                @Param("status") OrderOutboxEvent.Status status,
+                @Param("attempts") int attempts,
+                @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                @Param("lastError") String lastError,
+                @Param("now") LocalDateTime now);
+}
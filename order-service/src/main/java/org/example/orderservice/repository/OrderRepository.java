@@ -1,16 +1,101 @@
 package org.example.orderservice.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.example.orderservice.model.Order;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, String> {
+    String OVERLAPPING = "SELECT o FROM Order o WHERE o.startDate <= :to AND o.endDate >= :from ";
+    String BY_START_AND_ID = "ORDER BY o.startDate, o.orderId";
+
     List<Order> findByStartDateBetween(LocalDate startDate, LocalDate endDate);
     List<Order> findByEndDateBetween(LocalDate startDate, LocalDate endDate);
+    @EntityGraph(attributePaths = "assignedRacks")
     List<Order> findByStartDateLessThanEqualAndEndDateGreaterThanEqual(LocalDate date1, LocalDate date2);
+
+    @EntityGraph(attributePaths = "assignedRacks")
+    List<Order> findWithAssignedRacksByOrderIdIn(Collection<String> orderIds);
+
+    @EntityGraph(attributePaths = "assignedRacks")
+    @Query("SELECT o FROM Order o")
+    List<Order> findAllWithAssignedRacks();
+
+    /**
+     * Rows of [orderId, startDate, endDate] for every order, for the in-memory interval index.
+     */
+    @Query("SELECT o.orderId, o.startDate, o.endDate FROM Order o")
+    List<Object[]> findAllPeriods();
+
+    /**
+     * First keyset page of orders overlapping [from, to], ordered by (startDate, orderId).
+     */
+    @Query(OVERLAPPING + BY_START_AND_ID)
+    List<Order> findOverlapping(@Param("from") LocalDate from, @Param("to") LocalDate to, Pageable pageable);
+
+    /**
+     * Next keyset page: orders overlapping [from, to] that sort after (afterStart, afterId).
+     */
+    @Query(OVERLAPPING + "AND (o.startDate > :afterStart OR (o.startDate = :afterStart AND o.orderId > :afterId)) "
+            + BY_START_AND_ID)
+    List<Order> findOverlappingAfter(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                     @Param("afterStart") LocalDate afterStart, @Param("afterId") String afterId,
+                                     Pageable pageable);
+
+    /**
+     * Keyset page of a user's orders with an orderId after {@code afterId} (empty for the first
+     * page), optionally limited to one status, ordered by orderId.
+     */
+    @Query("SELECT o FROM Order o WHERE o.userId = :userId AND (:status IS NULL OR o.status = :status) "
+            + "AND o.orderId > :afterId ORDER BY o.orderId")
+    List<Order> findByUserId(@Param("userId") String userId, @Param("status") Order.OrderStatus status,
+                             @Param("afterId") String afterId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "assignedRacks")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(OVERLAPPING + BY_START_AND_ID)
+    Stream<Order> streamOverlapping(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.orderId = :orderId")
+    Optional<Order> findByIdForUpdate(@Param("orderId") String orderId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.orderId IN :orderIds")
+    List<Order> findAllByIdForUpdate(@Param("orderIds") Collection<String> orderIds);
+
+    /**
+     * Move every order in status {@code from} whose rental has begun by {@code today} to {@code to}.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Order o SET o.status = :to WHERE o.status = :from AND o.startDate <= :today")
+    int updateStatusWhereStarted(@Param("from") Order.OrderStatus from, @Param("to") Order.OrderStatus to,
+                                 @Param("today") LocalDate today);
+
+    /**
+     * IDs of orders in the given status whose rental ended before {@code today}, earliest end first.
+     */
+    @Query("SELECT o.orderId FROM Order o WHERE o.status = :status AND o.endDate < :today ORDER BY o.endDate")
+    List<String> findIdsEndedBefore(@Param("status") Order.OrderStatus status, @Param("today") LocalDate today,
+                                    Pageable pageable);
 }
 
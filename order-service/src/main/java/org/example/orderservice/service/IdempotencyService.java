@@ -0,0 +1,317 @@
+package org.example.orderservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.orderservice.model.IdempotencyRecord;
+import org.example.orderservice.repository.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs mutating requests at most once per Idempotency-Key.
+ * <p>
+ * The first request with a key executes and its response is recorded; repeats of the
+ * same request get that response back (marked with an Idempotent-Replayed header)
+ * until the key expires. A repeat that arrives while the first one is still running
+ * on this instance waits for it instead of running in parallel; if the first one runs
+ * on another instance the repeat is rejected with 409, until the in-progress timeout
+ * lets a repeat take over a key whose instance died mid-request. Reusing a key for a
+ * different request body is rejected with 422. Failed executions are not recorded, so
+ * the client may retry them with the same key.
+ * <p>
+ * The action runs outside any transaction opened here: it may call other services, and
+ * a rollback could not undo those calls. Once it has returned, its response is recorded
+ * in a short transaction of its own, conditional on the execution still owning the key.
+ * Recording is therefore not atomic with the mutation: if the service stops in between,
+ * the key is left in progress and, after the in-progress timeout, a repeat runs the
+ * action again. A key is never taken over while its execution is still running on this
+ * instance. Recent keys are kept in a bounded in-memory map in
+ * front of the idempotency_keys table. The table lives in this instance's database,
+ * so keys are not shared with other instances.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Execution> executions = new ConcurrentHashMap<>();
+
+    private final long ttlMs;
+    private final long waitMs;
+    private final long inProgressTimeoutMs;
+    private final int maxEntries;
+
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              ObjectMapper objectMapper,
+                              @Value("${order.idempotency.ttl-ms:86400000}") long ttlMs,
+                              @Value("${order.idempotency.wait-ms:30000}") long waitMs,
+                              @Value("${order.idempotency.in-progress-timeout-ms:60000}") long inProgressTimeoutMs,
+                              @Value("${order.idempotency.max-entries:10000}") int maxEntries) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.ttlMs = ttlMs;
+        this.waitMs = waitMs;
+        this.inProgressTimeoutMs = inProgressTimeoutMs;
+        this.maxEntries = Math.max(1, maxEntries);
+    }
+
+    /**
+     * Run {@code action} unless a request with the same scope and key already ran, in which
+     * case its recorded response is returned. Without a key the action always runs.
+     */
+    public <T> ResponseEntity<T> execute(String scope, String idempotencyKey, Object request,
+                                         TypeReference<T> responseType, Supplier<ResponseEntity<T>> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        // Hashed: the scope contains path variables of any length
+        String requestKey = sha256((scope + " " + idempotencyKey).getBytes(StandardCharsets.UTF_8));
+        String fingerprint = fingerprint(request);
+
+        Execution execution = new Execution(fingerprint, System.currentTimeMillis() + ttlMs);
+        Execution existing;
+        while ((existing = executions.putIfAbsent(requestKey, execution)) != null) {
+            if (!existing.isExpired()) {
+                checkSameRequest(existing.fingerprint, fingerprint);
+                return replay(existing.await(waitMs), fingerprint, responseType);
+            }
+            executions.remove(requestKey, existing);
+        }
+
+        // This request owns the key on this instance
+        IdempotencyRecord owned = null;
+        ResponseEntity<T> response;
+        StoredResponse stored;
+        try {
+            IdempotencyRecord record = findOrRecord(requestKey, fingerprint);
+            if (record.getStatus() == IdempotencyRecord.Status.COMPLETED) {
+                stored = new StoredResponse(record.getFingerprint(),
+                        record.getResponseStatus(), record.getResponseBody());
+                execution.result.complete(stored);
+                return replay(stored, fingerprint, responseType);
+            }
+            owned = record;
+            execution.running = true;
+            try {
+                response = action.get();
+            } finally {
+                execution.running = false;
+            }
+            stored = new StoredResponse(fingerprint, response.getStatusCode().value(), toJson(response.getBody()));
+        } catch (RuntimeException e) {
+            executions.remove(requestKey, execution);
+            execution.result.completeExceptionally(e);
+            if (owned != null) {
+                releaseQuietly(requestKey, owned.getCreatedAt());
+            }
+            throw e;
+        }
+
+        // The action has been applied; a failure to record it must not be reported as its failure
+        try {
+            if (repository.complete(requestKey, owned.getCreatedAt(), stored.status, stored.body,
+                    IdempotencyRecord.Status.COMPLETED, IdempotencyRecord.Status.IN_PROGRESS) != 1) {
+                logger.warn("Idempotency key {} was taken over while its request ran; response not recorded",
+                        requestKey);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Failed to record the response for idempotency key {}: {}", requestKey, e.getMessage());
+        }
+        execution.result.complete(stored);
+        evictIfFull();
+        return response;
+    }
+
+    @Scheduled(fixedDelayString = "${order.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        executions.values().removeIf(Execution::isExpired);
+        int deleted = repository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            logger.info("Purged {} expired idempotency keys", deleted);
+        }
+    }
+
+    /**
+     * Returns the completed record for the key, or records this request as in progress and
+     * returns that record. Fails with 409 if another execution is still running it. A record
+     * left in progress past the timeout is taken over, unless its execution is still running
+     * on this instance.
+     */
+    private IdempotencyRecord findOrRecord(String requestKey, String fingerprint) {
+        LocalDateTime now = LocalDateTime.now();
+        IdempotencyRecord existing = repository.findById(requestKey).orElse(null);
+        if (existing != null && (existing.getExpiresAt().isBefore(now)
+                || (existing.getStatus() == IdempotencyRecord.Status.IN_PROGRESS
+                    && existing.getCreatedAt().plusNanos(inProgressTimeoutMs * 1_000_000).isBefore(now)
+                    && !isRunningHere(requestKey)))) {
+            repository.delete(existing);
+            existing = null;
+        }
+        if (existing != null) {
+            checkSameRequest(existing.getFingerprint(), fingerprint);
+            if (existing.getStatus() == IdempotencyRecord.Status.COMPLETED) {
+                return existing;
+            }
+            throw inProgress();
+        }
+        try {
+            return repository.saveAndFlush(new IdempotencyRecord(requestKey, fingerprint,
+                    now.plusNanos(ttlMs * 1_000_000)));
+        } catch (DataIntegrityViolationException e) {
+            throw inProgress();
+        }
+    }
+
+    private boolean isRunningHere(String requestKey) {
+        Execution current = executions.get(requestKey);
+        return current != null && current.running;
+    }
+
+    private void releaseQuietly(String requestKey, LocalDateTime ownedSince) {
+        try {
+            repository.release(requestKey, ownedSince, IdempotencyRecord.Status.IN_PROGRESS);
+        } catch (RuntimeException e) {
+            logger.error("Failed to release idempotency key {}: {}", requestKey, e.getMessage());
+        }
+    }
+
+    /**
+     * Drop completed entries once the map is over its limit; they remain in the table.
+     */
+    private void evictIfFull() {
+        if (executions.size() <= maxEntries) {
+            return;
+        }
+        executions.values().removeIf(Execution::isExpired);
+        Iterator<Execution> iterator = executions.values().iterator();
+        while (executions.size() > maxEntries && iterator.hasNext()) {
+            if (iterator.next().result.isDone()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(StoredResponse stored, String fingerprint, TypeReference<T> responseType) {
+        checkSameRequest(stored.fingerprint, fingerprint);
+        try {
+            T body = stored.body != null ? objectMapper.readValue(stored.body, responseType) : null;
+            return ResponseEntity.status(stored.status).header(REPLAYED_HEADER, "true").body(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response cannot be read", e);
+        }
+    }
+
+    private String toJson(Object body) {
+        try {
+            return body != null ? objectMapper.writeValueAsString(body) : null;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response cannot be stored", e);
+        }
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            return sha256(request != null ? objectMapper.writeValueAsBytes(request) : new byte[0]);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Request cannot be fingerprinted", e);
+        }
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void checkSameRequest(String originalFingerprint, String fingerprint) {
+        if (!originalFingerprint.equals(fingerprint)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    HEADER + " was already used for a different request");
+        }
+    }
+
+    private static ResponseStatusException inProgress() {
+        return new ResponseStatusException(HttpStatus.CONFLICT,
+                "A request with this " + HEADER + " is still in progress");
+    }
+
+    private static final class StoredResponse {
+        private final String fingerprint;
+        private final int status;
+        private final String body;
+
+        private StoredResponse(String fingerprint, int status, String body) {
+            this.fingerprint = fingerprint;
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    private static final class Execution {
+        private final CompletableFuture<StoredResponse> result = new CompletableFuture<>();
+        private final String fingerprint;
+        private final long expiresAtMs;
+        // Set while the action runs, so a stale record of it is not taken over
+        private volatile boolean running;
+
+        private Execution(String fingerprint, long expiresAtMs) {
+            this.fingerprint = fingerprint;
+            this.expiresAtMs = expiresAtMs;
+        }
+
+        private boolean isExpired() {
+            return result.isDone() && System.currentTimeMillis() > expiresAtMs;
+        }
+
+        private StoredResponse await(long waitMs) {
+            try {
+                return result.get(waitMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                throw inProgress();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw inProgress();
+            } catch (ExecutionException e) {
+                // The first execution failed and was not recorded; report the same failure
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package org.example.orderservice.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.orderservice.dto.OrderConfirmationStatusDTO;
+import org.example.orderservice.model.Order;
+import org.example.orderservice.model.OrderOutboxEvent;
+import org.example.orderservice.repository.OrderOutboxRepository;
+import org.example.orderservice.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Carries out order confirmations recorded in the outbox.
+ * <p>
+ * A scheduled dispatcher picks due CONFIRM_ORDER events, leases each one with a
+ * conditional update (so several order-service instances can share the outbox), and
+ * hands it to a worker pool that runs the payment check and rack claim outside any
+ * database transaction. On success
+ * the order becomes CONFIRMED; failures are retried with exponential backoff and, once
+ * attempts run out, the order returns to CREATED.
+ * <p>
+ * Each lease carries a fresh token, and a worker ends its lease with an update conditional
+ * on that token. A worker whose lease expired and was taken over changes neither the event
+ * nor the order, and leaves the racks to the new holder. Racks are claimed under the order
+ * ID, so a retry or takeover gets back the racks already claimed; they are released by that
+ * key once attempts run out or the order was cancelled meanwhile.
+ * <p>
+ * Clients poll {@code GET /api/orders/{id}/confirmation} or wait on it with
+ * {@code waitMs}; waiters on this instance are woken when the saga finishes.
+ */
+@Service
+public class OrderConfirmationSaga {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderConfirmationSaga.class);
+    private static final Set<OrderOutboxEvent.Status> CLAIMABLE =
+            EnumSet.of(OrderOutboxEvent.Status.PENDING, OrderOutboxEvent.Status.IN_PROGRESS);
+
+    private final OrderRepository orderRepository;
+    private final OrderOutboxRepository outboxRepository;
+    private final OrderService orderService;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService workers;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<String, Set<DeferredResult<ResponseEntity<OrderConfirmationStatusDTO>>>> waiters =
+            new ConcurrentHashMap<>();
+
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long backoffMs;
+    private final long leaseMs;
+
+    public OrderConfirmationSaga(OrderRepository orderRepository,
+                                 OrderOutboxRepository outboxRepository,
+                                 OrderService orderService,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${order.outbox.workers:4}") int workerCount,
+                                 @Value("${order.outbox.batch-size:50}") int batchSize,
+                                 @Value("${order.outbox.max-attempts:5}") int maxAttempts,
+                                 @Value("${order.outbox.backoff-ms:1000}") long backoffMs,
+                                 @Value("${order.outbox.lease-ms:30000}") long leaseMs) {
+        this.orderRepository = orderRepository;
+        this.outboxRepository = outboxRepository;
+        this.orderService = orderService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.max(1, workerCount), runnable -> {
+            Thread thread = new Thread(runnable, "order-outbox-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMs = backoffMs;
+        this.leaseMs = leaseMs;
+    }
+
+    /**
+     * Lease due events and hand them to the workers without waiting for them, so the
+     * shared scheduler thread is never held by remote calls. At most one batch is in
+     * flight; the rest stay in the outbox for later ticks.
+     */
+    @Scheduled(fixedDelayString = "${order.outbox.poll-interval-ms:500}")
+    public void dispatch() {
+        int capacity = batchSize - inFlight.get();
+        if (capacity <= 0) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<OrderOutboxEvent> due = outboxRepository.findByStatusInAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+                CLAIMABLE, now, PageRequest.of(0, capacity));
+
+        for (OrderOutboxEvent event : due) {
+            String leaseToken = UUID.randomUUID().toString();
+            if (outboxRepository.acquire(event.getId(), CLAIMABLE, OrderOutboxEvent.Status.IN_PROGRESS,
+                    now, now.plusNanos(leaseMs * 1_000_000), leaseToken) != 1) {
+                continue;
+            }
+            inFlight.incrementAndGet();
+            try {
+                workers.execute(() -> {
+                    try {
+                        process(event.getId(), leaseToken);
+                    } catch (RuntimeException e) {
+                        // The lease expires and the event is picked up again
+                        logger.error("Order {} confirmation failed: {}", event.getOrderId(), e.getMessage());
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                inFlight.decrementAndGet();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Wait up to {@code waitMs} for the confirmation of the order to finish.
+     */
+    public DeferredResult<ResponseEntity<OrderConfirmationStatusDTO>> awaitConfirmation(String orderId, long waitMs) {
+        OrderConfirmationStatusDTO current = orderService.getConfirmationStatus(orderId);
+        DeferredResult<ResponseEntity<OrderConfirmationStatusDTO>> result = new DeferredResult<>(Math.max(1, waitMs));
+        if (waitMs <= 0 || isFinished(current)) {
+            result.setResult(ResponseEntity.ok(current));
+            return result;
+        }
+
+        Set<DeferredResult<ResponseEntity<OrderConfirmationStatusDTO>>> orderWaiters =
+                waiters.computeIfAbsent(orderId, key -> ConcurrentHashMap.newKeySet());
+        orderWaiters.add(result);
+        result.onTimeout(() -> result.setResult(ResponseEntity.ok(orderService.getConfirmationStatus(orderId))));
+        result.onCompletion(() -> orderWaiters.remove(result));
+
+        // The saga may have finished between the first read and registration
+        OrderConfirmationStatusDTO latest = orderService.getConfirmationStatus(orderId);
+        if (isFinished(latest)) {
+            result.setResult(ResponseEntity.ok(latest));
+        }
+        return result;
+    }
+
+    private void process(Long eventId, String leaseToken) {
+        OrderOutboxEvent event = outboxRepository.findById(eventId).orElse(null);
+        if (event == null || !leaseToken.equals(event.getLeaseToken())) {
+            return;
+        }
+        Order order = orderRepository.findById(event.getOrderId()).orElse(null);
+        if (order == null || order.getStatus() != Order.OrderStatus.CONFIRMING) {
+            finish(event, leaseToken, OrderOutboxEvent.Status.DONE, "Order is no longer awaiting confirmation");
+            return;
+        }
+
+        List<String> placeIds;
+        try {
+            placeIds = orderService.checkPaymentAndClaimPlaces(order);
+        } catch (RuntimeException e) {
+            retryOrFail(event, leaseToken, e.getMessage());
+            return;
+        }
+
+        Boolean confirmed;
+        try {
+            confirmed = transactionTemplate.execute(status -> {
+                Order current = orderRepository.findByIdForUpdate(event.getOrderId()).orElse(null);
+                if (current == null || current.getStatus() != Order.OrderStatus.CONFIRMING) {
+                    return false;
+                }
+                if (!endLease(event, leaseToken, OrderOutboxEvent.Status.DONE, event.getAttempts(),
+                        event.getNextAttemptAt(), null)) {
+                    return null;
+                }
+                current.setAssignedRacks(placeIds);
+                current.setStatus(Order.OrderStatus.CONFIRMED);
+                orderRepository.save(current);
+                return true;
+            });
+        } catch (RuntimeException e) {
+            // The racks stay under the order's claim key for the retry to pick up
+            retryOrFail(event, leaseToken, e.getMessage());
+            return;
+        }
+        if (confirmed == null) {
+            logger.info("Order {} confirmation lease was taken over, leaving it to the new holder", event.getOrderId());
+            return;
+        }
+        if (!confirmed) {
+            // Compensation: the order was cancelled while the racks were being claimed
+            orderService.releaseClaimQuietly(event.getOrderId());
+            finish(event, leaseToken, OrderOutboxEvent.Status.DONE, "Order is no longer awaiting confirmation");
+            return;
+        }
+        logger.info("Order {} confirmed with racks {}", event.getOrderId(), placeIds);
+        notifyWaiters(event.getOrderId());
+    }
+
+    private void retryOrFail(OrderOutboxEvent event, String leaseToken, String error) {
+        int attempts = event.getAttempts() + 1;
+        if (attempts >= maxAttempts) {
+            boolean failed = transactionTemplate.execute(status -> {
+                if (!endLease(event, leaseToken, OrderOutboxEvent.Status.FAILED, attempts,
+                        event.getNextAttemptAt(), error)) {
+                    return false;
+                }
+                orderRepository.findByIdForUpdate(event.getOrderId())
+                        .filter(order -> order.getStatus() == Order.OrderStatus.CONFIRMING)
+                        .ifPresent(order -> {
+                            order.setStatus(Order.OrderStatus.CREATED);
+                            orderRepository.save(order);
+                        });
+                return true;
+            });
+            if (!failed) {
+                logger.info("Order {} confirmation lease was taken over, leaving it to the new holder", event.getOrderId());
+                return;
+            }
+            logger.warn("Order {} confirmation failed after {} attempts: {}", event.getOrderId(), attempts, error);
+            // Compensation: give back the racks earlier attempts claimed
+            orderService.releaseClaimQuietly(event.getOrderId());
+            notifyWaiters(event.getOrderId());
+            return;
+        }
+
+        logger.info("Order {} confirmation attempt {} failed, retrying: {}", event.getOrderId(), attempts, error);
+        LocalDateTime nextAttemptAt = LocalDateTime.now().plusNanos(backoffMs * (1L << Math.min(attempts - 1, 16)) * 1_000_000);
+        if (!endLease(event, leaseToken, OrderOutboxEvent.Status.PENDING, attempts, nextAttemptAt, error)) {
+            logger.info("Order {} confirmation lease was taken over, leaving it to the new holder", event.getOrderId());
+        }
+    }
+
+    private void finish(OrderOutboxEvent event, String leaseToken, OrderOutboxEvent.Status status, String error) {
+        if (endLease(event, leaseToken, status, event.getAttempts(), event.getNextAttemptAt(), error)) {
+            notifyWaiters(event.getOrderId());
+        }
+    }
+
+    /**
+     * End this worker's lease on the event. Returns false, changing nothing, if the lease
+     * expired and another worker has taken the event over.
+     */
+    private boolean endLease(OrderOutboxEvent event, String leaseToken, OrderOutboxEvent.Status status,
+                             int attempts, LocalDateTime nextAttemptAt, String error) {
+        return outboxRepository.release(event.getId(), leaseToken, OrderOutboxEvent.Status.IN_PROGRESS,
+                status, attempts, nextAttemptAt, truncate(error), LocalDateTime.now()) == 1;
+    }
+
+    private void notifyWaiters(String orderId) {
+        Set<DeferredResult<ResponseEntity<OrderConfirmationStatusDTO>>> orderWaiters = waiters.remove(orderId);
+        if (orderWaiters == null || orderWaiters.isEmpty()) {
+            return;
+        }
+        OrderConfirmationStatusDTO status = orderService.getConfirmationStatus(orderId);
+        orderWaiters.forEach(waiter -> waiter.setResult(ResponseEntity.ok(status)));
+    }
+
+    private static boolean isFinished(OrderConfirmationStatusDTO status) {
+        return status.getStatus() == null
+                || OrderOutboxEvent.Status.DONE.name().equals(status.getStatus())
+                || OrderOutboxEvent.Status.FAILED.name().equals(status.getStatus());
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,224 @@
+package org.example.orderservice.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of order rental periods for overlap queries.
+ * <p>
+ * An AVL tree ordered by (startDate, endDate, orderId) where every node also stores the
+ * largest endDate in its subtree. A query skips any subtree whose largest endDate is
+ * before the requested start and stops descending right once startDate passes the
+ * requested end, so it visits O(log n + k) nodes for k matching orders.
+ * <p>
+ * Order dates never change after creation, so OrderService only adds orders, after the
+ * creating transaction commits.
+ */
+@Component
+public class OrderIntervalIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Node root;
+    private int size;
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the stored periods and marks the index ready. Orders added concurrently while
+     * the periods were being read are kept; an order present in both is indexed once.
+     */
+    public void load(List<OrderPeriod> periods) {
+        lock.writeLock().lock();
+        try {
+            for (OrderPeriod period : periods) {
+                if (period.getStartDate() != null && period.getEndDate() != null) {
+                    root = insert(root, period);
+                }
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void add(String orderId, LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            root = insert(root, new OrderPeriod(orderId, startDate, endDate));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * IDs of orders whose period overlaps [from, to] (both inclusive), by ascending startDate.
+     */
+    public List<String> findOverlapping(LocalDate from, LocalDate to) {
+        List<String> result = new ArrayList<>();
+        if (from.isAfter(to)) {
+            return result;
+        }
+        lock.readLock().lock();
+        try {
+            collect(root, from.toEpochDay(), to.toEpochDay(), result);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    private static void collect(Node node, long from, long to, List<String> result) {
+        while (node != null && node.maxEnd >= from) {
+            collect(node.left, from, to, result);
+            if (node.start > to) {
+                // Everything to the right starts even later
+                return;
+            }
+            if (node.end >= from) {
+                result.add(node.orderId);
+            }
+            node = node.right;
+        }
+    }
+
+    private Node insert(Node node, OrderPeriod period) {
+        if (node == null) {
+            size++;
+            return new Node(period);
+        }
+        int cmp = node.compareTo(period);
+        if (cmp == 0) {
+            return node;
+        }
+        if (cmp > 0) {
+            node.left = insert(node.left, period);
+        } else {
+            node.right = insert(node.right, period);
+        }
+        return rebalance(node);
+    }
+
+    private static Node rebalance(Node node) {
+        node.update();
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static int height(Node node) {
+        return node != null ? node.height : 0;
+    }
+
+    /**
+     * Rental period of one order, as loaded at startup.
+     */
+    public static class OrderPeriod {
+        private final String orderId;
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+
+        public OrderPeriod(String orderId, LocalDate startDate, LocalDate endDate) {
+            this.orderId = orderId;
+            this.startDate = startDate;
+            this.endDate = endDate;
+        }
+
+        public String getOrderId() {
+            return orderId;
+        }
+
+        public LocalDate getStartDate() {
+            return startDate;
+        }
+
+        public LocalDate getEndDate() {
+            return endDate;
+        }
+    }
+
+    private static final class Node {
+        private final String orderId;
+        private final long start;
+        private final long end;
+        private long maxEnd;
+        private int height;
+        private Node left;
+        private Node right;
+
+        private Node(OrderPeriod period) {
+            this.orderId = period.getOrderId();
+            this.start = period.getStartDate().toEpochDay();
+            this.end = period.getEndDate().toEpochDay();
+            this.maxEnd = end;
+            this.height = 1;
+        }
+
+        private void update() {
+            height = 1 + Math.max(height(left), height(right));
+            maxEnd = end;
+            if (left != null && left.maxEnd > maxEnd) {
+                maxEnd = left.maxEnd;
+            }
+            if (right != null && right.maxEnd > maxEnd) {
+                maxEnd = right.maxEnd;
+            }
+        }
+
+        private int compareTo(OrderPeriod period) {
+            int cmp = Long.compare(start, period.getStartDate().toEpochDay());
+            if (cmp == 0) {
+                cmp = Long.compare(end, period.getEndDate().toEpochDay());
+            }
+            return cmp != 0 ? cmp : orderId.compareTo(period.getOrderId());
+        }
+    }
+}
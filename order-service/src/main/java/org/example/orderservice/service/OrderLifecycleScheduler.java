@@ -0,0 +1,155 @@
+package org.example.orderservice.service;
+
+import org.example.orderservice.client.PlaceServiceClient;
+import org.example.orderservice.model.Order;
+import org.example.orderservice.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Starts and finishes orders when their rental period begins and ends.
+ * <p>
+ * Each tick moves CONFIRMED orders whose startDate has come to ACTIVE with one
+ * conditional update, then finishes ACTIVE orders whose endDate has passed in batches:
+ * the batch is locked, its racks are released with a single call to Place Service and
+ * the orders become FINISHED in the same transaction. Racks are released by the orders'
+ * claim keys, which frees only racks still held by these orders: if the transaction
+ * fails after the release, racks another order has claimed in the meantime are left
+ * alone when the batch is retried. If a batch fails it is rolled
+ * back and its orders are finished one by one instead, so one order whose racks cannot
+ * be released does not hold up the others. An order that keeps failing is skipped after
+ * {@code order.lifecycle.max-attempts} ticks and logged for manual follow-up; the count
+ * is kept in memory and starts over on restart.
+ * <p>
+ * Due orders are found through the date indexes on the orders table, so nothing is
+ * held in memory per scheduled order and no state is lost on restart; orders that fell
+ * due while the service was down are handled on the first tick.
+ */
+@Service
+public class OrderLifecycleScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderLifecycleScheduler.class);
+
+    private final OrderRepository orderRepository;
+    private final PlaceServiceClient placeServiceClient;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxAttempts;
+    // Failed finish attempts per order, only touched by the scheduler thread
+    private final Map<String, Integer> failures = new HashMap<>();
+
+    public OrderLifecycleScheduler(OrderRepository orderRepository,
+                                   PlaceServiceClient placeServiceClient,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${order.lifecycle.enabled:true}") boolean enabled,
+                                   @Value("${order.lifecycle.batch-size:200}") int batchSize,
+                                   @Value("${order.lifecycle.max-attempts:5}") int maxAttempts) {
+        this.orderRepository = orderRepository;
+        this.placeServiceClient = placeServiceClient;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+    }
+
+    @Scheduled(fixedDelayString = "${order.lifecycle.tick-ms:60000}")
+    public void tick() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        int started = orderRepository.updateStatusWhereStarted(
+                Order.OrderStatus.CONFIRMED, Order.OrderStatus.ACTIVE, today);
+        int finished = finishEndedOrders(today);
+        if (started > 0 || finished > 0) {
+            logger.info("Order lifecycle: {} orders started, {} finished", started, finished);
+        }
+    }
+
+    private int finishEndedOrders(LocalDate today) {
+        int finished = 0;
+        // Orders that failed on this tick (or too often before) are left out of later batches
+        Set<String> skipped = new HashSet<>();
+        failures.forEach((orderId, count) -> {
+            if (count >= maxAttempts) {
+                skipped.add(orderId);
+            }
+        });
+        while (true) {
+            List<String> found = orderRepository.findIdsEndedBefore(
+                    Order.OrderStatus.ACTIVE, today, PageRequest.of(0, batchSize + skipped.size()));
+            List<String> orderIds = found.stream()
+                    .filter(orderId -> !skipped.contains(orderId))
+                    .limit(batchSize)
+                    .collect(Collectors.toList());
+            if (orderIds.isEmpty()) {
+                return finished;
+            }
+            try {
+                finished += transactionTemplate.execute(status -> finishBatch(orderIds, today));
+                orderIds.forEach(failures::remove);
+            } catch (RuntimeException e) {
+                logger.warn("Failed to finish {} ended orders together, finishing them one by one: {}",
+                        orderIds.size(), e.getMessage());
+                finished += finishEach(orderIds, today, skipped);
+            }
+            if (found.size() < batchSize + skipped.size()) {
+                return finished;
+            }
+        }
+    }
+
+    private int finishEach(List<String> orderIds, LocalDate today, Set<String> skipped) {
+        int finished = 0;
+        for (String orderId : orderIds) {
+            try {
+                finished += transactionTemplate.execute(status -> finishBatch(List.of(orderId), today));
+                failures.remove(orderId);
+            } catch (RuntimeException e) {
+                skipped.add(orderId);
+                int attempts = failures.merge(orderId, 1, Integer::sum);
+                if (attempts >= maxAttempts) {
+                    logger.error("Order {} could not be finished after {} attempts, skipping it until restart: {}",
+                            orderId, attempts, e.getMessage());
+                } else {
+                    logger.warn("Failed to finish order {}, retrying next tick: {}", orderId, e.getMessage());
+                }
+            }
+        }
+        return finished;
+    }
+
+    private int finishBatch(List<String> orderIds, LocalDate today) {
+        // Re-check under the row locks: an order may have been cancelled since it was selected
+        List<Order> orders = orderRepository.findAllByIdForUpdate(orderIds).stream()
+                .filter(order -> order.getStatus() == Order.OrderStatus.ACTIVE && order.getEndDate().isBefore(today))
+                .collect(Collectors.toList());
+
+        List<String> claimKeys = orders.stream()
+                .filter(order -> !order.getAssignedRacks().isEmpty())
+                .map(Order::getOrderId)
+                .collect(Collectors.toList());
+        if (!claimKeys.isEmpty()) {
+            placeServiceClient.releaseClaims(claimKeys);
+        }
+
+        orders.forEach(order -> order.setStatus(Order.OrderStatus.FINISHED));
+        orderRepository.saveAll(orders);
+        return orders.size();
+    }
+}
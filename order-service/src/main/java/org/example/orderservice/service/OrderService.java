@@ -1,22 +1,65 @@
 package org.example.orderservice.service;
 
+import org.example.common.ids.IdGenerator;
 import org.example.orderservice.client.PaymentServiceClient;
 import org.example.orderservice.client.PlaceServiceClient;
 import org.example.orderservice.dto.*;
 import org.example.orderservice.model.Order;
+import org.example.orderservice.model.OrderOutboxEvent;
+import org.example.orderservice.repository.OrderOutboxRepository;
 import org.example.orderservice.repository.OrderRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class OrderService {
 
+    private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
+
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int STREAM_FLUSH_INTERVAL = 500;
+
     @Autowired
     private OrderRepository orderRepository;
 
@@ -26,18 +69,62 @@ public class OrderService {
     @Autowired
     private PaymentServiceClient paymentServiceClient;
 
+    @Autowired
+    private OrderOutboxRepository outboxRepository;
+
+    @Autowired
+    private ExecutorService remoteCallExecutor;
+
+    @Autowired
+    private OrderIntervalIndex orderIntervalIndex;
+
+    @Autowired
+    private IdGenerator idGenerator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${order.confirm.timeout-ms:5000}")
+    private long confirmTimeoutMs;
+
+    @Value("${order.interval-index.enabled:true}")
+    private boolean intervalIndexEnabled;
+
+    /**
+     * Load every stored order period into the interval index.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadOrderIntervalIndex() {
+        if (!intervalIndexEnabled) {
+            return;
+        }
+        List<OrderIntervalIndex.OrderPeriod> periods = orderRepository.findAllPeriods().stream()
+                .map(row -> new OrderIntervalIndex.OrderPeriod(
+                        (String) row[0], (LocalDate) row[1], (LocalDate) row[2]))
+                .collect(Collectors.toList());
+        orderIntervalIndex.load(periods);
+        logger.info("Order interval index built with {} orders", periods.size());
+    }
+
     @Transactional
     public OrderDTO createOrderForPlaces(CreateOrderRequestDTO request) {
         // Check if enough free places are available
-        List<PlaceServiceDTO> freePlaces = placeServiceClient.getFreePlacesByType(request.getDesiredType());
+        long freePlaces = placeServiceClient.countFreePlacesByType(request.getDesiredType());
         
-        if (freePlaces.size() < request.getRackCount()) {
+        if (freePlaces < request.getRackCount()) {
             throw new RuntimeException("Not enough free places available. Required: " + 
-                    request.getRackCount() + ", Available: " + freePlaces.size());
+                    request.getRackCount() + ", Available: " + freePlaces);
         }
 
         // Create order
-        String orderId = "ord" + UUID.randomUUID().toString().substring(0, 8);
+        String orderId = idGenerator.nextId("ord");
         Order order = new Order(
                 orderId,
                 request.getUserId(),
@@ -49,62 +136,372 @@ public class OrderService {
         );
 
         orderRepository.save(order);
+        if (intervalIndexEnabled) {
+            afterCommit(() -> orderIntervalIndex.add(orderId, order.getStartDate(), order.getEndDate()));
+        }
         return convertToDTO(order);
     }
 
+    @Transactional(readOnly = true)
     public List<OrderDTO> getOrdersByDateRange(LocalDate startDate, LocalDate endDate) {
-        List<Order> orders = orderRepository.findByStartDateLessThanEqualAndEndDateGreaterThanEqual(
-                endDate, startDate);
+        List<Order> orders;
+        if (intervalIndexEnabled && orderIntervalIndex.isReady()) {
+            orders = findOverlappingOrders(startDate, endDate);
+        } else {
+            orders = orderRepository.findByStartDateLessThanEqualAndEndDateGreaterThanEqual(endDate, startDate);
+        }
         return orders.stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * One page of a user's orders ordered by orderId, optionally limited to one status.
+     * The cursor is the nextCursor of the previous page (the last orderId returned).
+     */
+    @Transactional(readOnly = true)
+    public OrderPageDTO getOrdersByUserId(String userId, String status, String cursor, Integer size) {
+        int pageSize = pageSize(size);
+        List<Order> orders = orderRepository.findByUserId(userId, parseStatus(status),
+                cursor != null ? cursor : "", PageRequest.of(0, pageSize));
+
+        List<OrderDTO> items = orders.stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        String nextCursor = orders.size() == pageSize ? orders.get(orders.size() - 1).getOrderId() : null;
+        return new OrderPageDTO(items, nextCursor);
+    }
+
+    /**
+     * One page of orders overlapping the range, ordered by (startDate, orderId). The cursor
+     * is the opaque nextCursor of the previous page; null starts from the beginning.
+     */
+    @Transactional(readOnly = true)
+    public OrderPageDTO getOrdersByDateRangePage(LocalDate startDate, LocalDate endDate, String cursor, Integer size) {
+        int pageSize = pageSize(size);
+        PageRequest limit = PageRequest.of(0, pageSize);
+
+        List<Order> orders;
+        if (cursor == null || cursor.isEmpty()) {
+            orders = orderRepository.findOverlapping(startDate, endDate, limit);
+        } else {
+            PageCursor after = PageCursor.decode(cursor);
+            orders = orderRepository.findOverlappingAfter(startDate, endDate,
+                    after.startDate, after.orderId, limit);
+        }
+
+        List<OrderDTO> items = orders.stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        String nextCursor = null;
+        if (orders.size() == pageSize) {
+            Order last = orders.get(orders.size() - 1);
+            nextCursor = PageCursor.encode(last.getStartDate(), last.getOrderId());
+        }
+        return new OrderPageDTO(items, nextCursor);
+    }
+
+    private static int pageSize(Integer size) {
+        return size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    private static Order.OrderStatus parseStatus(String status) {
+        if (status == null || status.isEmpty()) {
+            return null;
+        }
+        try {
+            return Order.OrderStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid order status: " + status);
+        }
+    }
+
+    /**
+     * Write every order overlapping the range as newline-delimited JSON, reading rows through
+     * a cursor and detaching each order once written so the persistence context stays small.
+     */
+    @Transactional(readOnly = true)
+    public void streamOrdersByDateRange(LocalDate startDate, LocalDate endDate, OutputStream out) {
+        try (Stream<Order> orders = orderRepository.streamOverlapping(startDate, endDate)) {
+            int written = 0;
+            for (Order order : (Iterable<Order>) orders::iterator) {
+                out.write(objectMapper.writeValueAsBytes(convertToDTO(order)));
+                out.write('\n');
+                entityManager.detach(order);
+                if (++written % STREAM_FLUSH_INTERVAL == 0) {
+                    out.flush();
+                }
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<Order> findOverlappingOrders(LocalDate startDate, LocalDate endDate) {
+        List<String> orderIds = orderIntervalIndex.findOverlapping(startDate, endDate);
+        if (orderIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        if (orderIds.size() == orderIntervalIndex.size()) {
+            // The range covers every order; a plain scan beats a huge IN list
+            return orderRepository.findAllWithAssignedRacks();
+        }
+        Map<String, Order> byId = orderRepository.findWithAssignedRacksByOrderIdIn(orderIds).stream()
+                .collect(Collectors.toMap(Order::getOrderId, Function.identity()));
+        return orderIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
     public OrderDTO getOrderById(String orderId) {
         Order order = orderRepository.findById(orderId)
                 .orElse(null);
         return order != null ? convertToDTO(order) : null;
     }
 
+    /**
+     * Move the order to CONFIRMING and record the confirmation in the outbox; the
+     * payment check and rack assignment run later in {@link OrderConfirmationSaga}.
+     */
     @Transactional
     public OrderDTO confirmOrderById(String orderId) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findByIdForUpdate(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
 
         if (order.getStatus() != Order.OrderStatus.CREATED) {
             throw new RuntimeException("Order cannot be confirmed. Current status: " + order.getStatus());
         }
 
-        // Check if payment exists (fail-silent if payment service is unavailable)
-        boolean hasPayment = paymentServiceClient.hasPaymentForOrder(orderId);
-        if (!hasPayment) {
-            throw new RuntimeException("Order cannot be confirmed without payment");
+        order.setStatus(Order.OrderStatus.CONFIRMING);
+        orderRepository.save(order);
+        outboxRepository.save(new OrderOutboxEvent(orderId, OrderOutboxEvent.EventType.CONFIRM_ORDER));
+
+        return convertToDTO(order);
+    }
+
+    @Transactional(readOnly = true)
+    public OrderConfirmationStatusDTO getConfirmationStatus(String orderId) {
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
+        return outboxRepository.findFirstByOrderIdOrderByIdDesc(orderId)
+                .map(event -> new OrderConfirmationStatusDTO(orderId, event.getStatus().name(),
+                        event.getAttempts(), event.getLastError(), convertToDTO(order)))
+                .orElseGet(() -> new OrderConfirmationStatusDTO(orderId, null, 0, null, convertToDTO(order)));
+    }
+
+    /**
+     * Check the payment and claim racks concurrently, bounded by the confirmation deadline.
+     * The claim is started speculatively and the result fails as soon as either call fails.
+     * <p>
+     * Racks are claimed under the order ID as claim key, so a retried confirmation gets back
+     * the racks an earlier attempt claimed rather than occupying more, and they can be
+     * released by key even when the claim's answer never arrived. A failed attempt keeps its
+     * racks for the retry; once the claim call has settled they are released if the order is
+     * no longer being confirmed. A payment check still running is left to finish: it only
+     * reads, and a CompletableFuture cannot interrupt the thread running it.
+     */
+    List<String> checkPaymentAndClaimPlaces(Order order) {
+        String orderId = order.getOrderId();
+        CompletableFuture<Boolean> payment;
+        CompletableFuture<List<String>> claim;
+        try {
+            // Check if payment exists (fail-silent if payment service is unavailable)
+            payment = CompletableFuture.supplyAsync(() -> {
+                if (!paymentServiceClient.hasPaymentForOrder(orderId)) {
+                    throw new RuntimeException("Order cannot be confirmed without payment");
+                }
+                return true;
+            }, remoteCallExecutor);
+            // Assign places (picked and occupied atomically by Place Service)
+            claim = CompletableFuture.supplyAsync(() -> placeServiceClient.claimPlaces(
+                    order.getDesiredType().name(), order.getRackCount(), order.getUserId(), orderId),
+                    remoteCallExecutor);
+        } catch (RejectedExecutionException e) {
+            throw new RuntimeException("Order service is busy, please retry");
+        }
+
+        // thenCombine alone waits for both calls; fail the result on the first error instead
+        CompletableFuture<List<String>> result = new CompletableFuture<>();
+        payment.whenComplete((paid, error) -> {
+            if (error != null) {
+                result.completeExceptionally(error);
+            }
+        });
+        claim.whenComplete((placeIds, error) -> {
+            if (error != null) {
+                result.completeExceptionally(error);
+            }
+        });
+        payment.thenCombine(claim, (paid, placeIds) -> placeIds).thenAccept(result::complete);
+
+        try {
+            return result.get(confirmTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            releaseClaimIfUnused(orderId, claim);
+            throw new RuntimeException("Order confirmation interrupted");
+        } catch (TimeoutException e) {
+            releaseClaimIfUnused(orderId, claim);
+            throw new RuntimeException("Order confirmation timed out after " + confirmTimeoutMs + " ms");
+        } catch (ExecutionException e) {
+            releaseClaimIfUnused(orderId, claim);
+            Throwable cause = e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new RuntimeException(cause);
         }
+    }
 
-        // Assign places
-        List<PlaceServiceDTO> freePlaces = placeServiceClient.getFreePlacesByType(
-                order.getDesiredType().name());
-        
-        if (freePlaces.size() < order.getRackCount()) {
-            throw new RuntimeException("Not enough free places available");
+    private void releaseClaimIfUnused(String orderId, CompletableFuture<List<String>> claim) {
+        // A claim already sent cannot be recalled, and a timed-out one may still commit
+        claim.whenComplete((placeIds, error) -> {
+            Order.OrderStatus status = orderRepository.findById(orderId).map(Order::getStatus).orElse(null);
+            if (status == Order.OrderStatus.CONFIRMING || status == Order.OrderStatus.CONFIRMED
+                    || status == Order.OrderStatus.ACTIVE) {
+                // A retry reuses the racks, or the order already holds them
+                return;
+            }
+            releaseClaimQuietly(orderId);
+        });
+    }
+
+    /**
+     * Free the racks the order's claim key still holds, logging instead of failing.
+     */
+    void releaseClaimQuietly(String orderId) {
+        try {
+            List<String> released = placeServiceClient.releaseClaim(orderId);
+            if (!released.isEmpty()) {
+                logger.info("Released racks {} claimed for order {}", released, orderId);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Failed to release racks claimed for order {}: {}", orderId, e.getMessage());
         }
+    }
 
-        List<String> placeIds = freePlaces.stream()
-                .limit(order.getRackCount())
-                .map(PlaceServiceDTO::getRackId)
-                .collect(Collectors.toList());
+    /**
+     * Confirm many orders with one payment lookup and one rack claim call per rack type.
+     * Orders that cannot be confirmed are reported in their result; the rest go through.
+     * The claimed orders are re-read under row locks before they are saved. Racks are claimed
+     * under the order IDs and released by them: for an order that was cancelled or finished
+     * meanwhile, and for all claimed orders if the save fails. An order that has moved on to
+     * being confirmed another way keeps them, since its own claim uses the same key.
+     */
+    public List<OrderConfirmationResultDTO> confirmOrdersBatch(List<String> orderIds) {
+        List<String> ids = orderIds == null ? new ArrayList<>() : new ArrayList<>(new LinkedHashSet<>(orderIds));
+        Map<String, OrderConfirmationResultDTO> results = new LinkedHashMap<>();
+        ids.forEach(orderId -> results.put(orderId, null));
+
+        Map<String, Order> orders = orderRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Order::getOrderId, Function.identity()));
+        List<Order> candidates = new ArrayList<>();
+        for (String orderId : ids) {
+            Order order = orders.get(orderId);
+            if (order == null) {
+                results.put(orderId, OrderConfirmationResultDTO.failed(orderId, "Order not found: " + orderId));
+            } else if (order.getStatus() != Order.OrderStatus.CREATED) {
+                results.put(orderId, OrderConfirmationResultDTO.failed(orderId,
+                        "Order cannot be confirmed. Current status: " + order.getStatus()));
+            } else {
+                candidates.add(order);
+            }
+        }
 
-        placeServiceClient.givePlacesToUser(placeIds, order.getUserId());
-        order.setAssignedRacks(placeIds);
-        order.setStatus(Order.OrderStatus.CONFIRMED);
-        orderRepository.save(order);
+        // Check payments for all candidates at once
+        Set<String> paidOrderIds = candidates.isEmpty() ? Set.of() : paymentServiceClient.getPaidOrderIds(
+                candidates.stream().map(Order::getOrderId).collect(Collectors.toList()));
+        Map<Order.RackType, List<Order>> paidByType = new EnumMap<>(Order.RackType.class);
+        for (Order order : candidates) {
+            if (paidOrderIds.contains(order.getOrderId())) {
+                paidByType.computeIfAbsent(order.getDesiredType(), type -> new ArrayList<>()).add(order);
+            } else {
+                results.put(order.getOrderId(), OrderConfirmationResultDTO.failed(order.getOrderId(),
+                        "Order cannot be confirmed without payment"));
+            }
+        }
 
-        return convertToDTO(order);
+        // Claim racks for each type group in one Place Service call
+        Map<String, List<String>> claimed = new LinkedHashMap<>();
+        paidByType.forEach((type, group) -> {
+            List<PlaceServiceClient.ClaimPlacesRequest> requests = group.stream()
+                    .map(order -> new PlaceServiceClient.ClaimPlacesRequest(
+                            type.name(), order.getRackCount(), order.getUserId(), order.getOrderId()))
+                    .collect(Collectors.toList());
+            List<PlaceServiceClient.ClaimPlacesResult> claims;
+            try {
+                claims = placeServiceClient.claimPlacesBatch(requests);
+            } catch (RuntimeException e) {
+                group.forEach(order -> results.put(order.getOrderId(),
+                        OrderConfirmationResultDTO.failed(order.getOrderId(), e.getMessage())));
+                return;
+            }
+
+            for (int i = 0; i < group.size(); i++) {
+                Order order = group.get(i);
+                PlaceServiceClient.ClaimPlacesResult claim = i < claims.size() ? claims.get(i) : null;
+                if (claim == null || claim.getPlaceIds() == null) {
+                    String error = claim != null && claim.getError() != null ? claim.getError() : "No places claimed";
+                    results.put(order.getOrderId(), OrderConfirmationResultDTO.failed(order.getOrderId(), error));
+                    continue;
+                }
+                claimed.put(order.getOrderId(), claim.getPlaceIds());
+            }
+        });
+        if (claimed.isEmpty()) {
+            return new ArrayList<>(results.values());
+        }
+
+        List<String> toRelease = new ArrayList<>();
+        // A short transaction of its own, after the remote calls
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            List<Order> confirmed = transaction.execute(status -> {
+                // Re-check under the row locks: an order may have been confirmed or cancelled since it was read
+                List<Order> locked = new ArrayList<>();
+                for (Order order : orderRepository.findAllByIdForUpdate(new ArrayList<>(claimed.keySet()))) {
+                    if (order.getStatus() == Order.OrderStatus.CREATED) {
+                        order.setAssignedRacks(claimed.get(order.getOrderId()));
+                        order.setStatus(Order.OrderStatus.CONFIRMED);
+                        locked.add(order);
+                    } else {
+                        results.put(order.getOrderId(), OrderConfirmationResultDTO.failed(order.getOrderId(),
+                                "Order cannot be confirmed. Current status: " + order.getStatus()));
+                        if (order.getStatus() == Order.OrderStatus.CANCELLED
+                                || order.getStatus() == Order.OrderStatus.FINISHED) {
+                            toRelease.add(order.getOrderId());
+                        }
+                    }
+                }
+                return orderRepository.saveAll(locked);
+            });
+            confirmed.forEach(order -> results.put(order.getOrderId(),
+                    OrderConfirmationResultDTO.confirmed(convertToDTO(order))));
+        } catch (RuntimeException e) {
+            logger.error("Failed to save {} confirmed orders: {}", claimed.size(), e.getMessage());
+            toRelease.clear();
+            claimed.forEach((orderId, placeIds) -> {
+                results.put(orderId, OrderConfirmationResultDTO.failed(orderId, e.getMessage()));
+                toRelease.add(orderId);
+            });
+        }
+
+        if (!toRelease.isEmpty()) {
+            try {
+                placeServiceClient.releaseClaims(toRelease);
+            } catch (RuntimeException e) {
+                logger.error("Failed to release racks of unconfirmed orders {}: {}", toRelease, e.getMessage());
+            }
+        }
+        return new ArrayList<>(results.values());
     }
 
+    /**
+     * Cancel the order and, once the cancellation has committed, release the racks held under
+     * its claim key: the assigned ones, and any a confirmation still in progress has claimed.
+     */
     @Transactional
     public OrderDTO cancelOrderById(String orderId) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findByIdForUpdate(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
 
         if (order.getStatus() == Order.OrderStatus.FINISHED || 
@@ -112,25 +509,16 @@ public class OrderService {
             throw new RuntimeException("Order cannot be cancelled. Current status: " + order.getStatus());
         }
 
-        // Free places if they were assigned
-        if (order.getAssignedRacks() != null && !order.getAssignedRacks().isEmpty()) {
-            try {
-                placeServiceClient.makePlacesFree(order.getAssignedRacks());
-            } catch (Exception e) {
-                // Log error but continue with cancellation
-                System.err.println("Error freeing places: " + e.getMessage());
-            }
-        }
-
         order.setStatus(Order.OrderStatus.CANCELLED);
         orderRepository.save(order);
+        afterCommit(() -> releaseClaimQuietly(orderId));
 
         return convertToDTO(order);
     }
 
     @Transactional
     public OrderDTO startOrderById(String orderId) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findByIdForUpdate(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
 
         if (order.getStatus() != Order.OrderStatus.CONFIRMED) {
@@ -143,27 +531,22 @@ public class OrderService {
         return convertToDTO(order);
     }
 
+    /**
+     * Finish the order and, once that has committed, release the racks still held under its
+     * claim key; racks that have since gone to another order are left alone.
+     */
     @Transactional
     public OrderDTO finishOrderById(String orderId) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findByIdForUpdate(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
 
         if (order.getStatus() != Order.OrderStatus.ACTIVE) {
             throw new RuntimeException("Order cannot be finished. Current status: " + order.getStatus());
         }
 
-        // Free places
-        if (order.getAssignedRacks() != null && !order.getAssignedRacks().isEmpty()) {
-            try {
-                placeServiceClient.makePlacesFree(order.getAssignedRacks());
-            } catch (Exception e) {
-                // Log error but continue with finishing
-                System.err.println("Error freeing places: " + e.getMessage());
-            }
-        }
-
         order.setStatus(Order.OrderStatus.FINISHED);
         orderRepository.save(order);
+        afterCommit(() -> releaseClaimQuietly(orderId));
 
         return convertToDTO(order);
     }
@@ -176,9 +559,52 @@ public class OrderService {
                 order.getEndDate(),
                 order.getRackCount(),
                 order.getDesiredType().name(),
-                order.getAssignedRacks(),
+                new ArrayList<>(order.getAssignedRacks()),
                 order.getStatus().name()
         );
     }
-}
 
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Keyset position (startDate, orderId) carried between pages as a URL-safe token.
+     */
+    private static final class PageCursor {
+        private final LocalDate startDate;
+        private final String orderId;
+
+        private PageCursor(LocalDate startDate, String orderId) {
+            this.startDate = startDate;
+            this.orderId = orderId;
+        }
+
+        private static String encode(LocalDate startDate, String orderId) {
+            String key = startDate + "|" + orderId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private static PageCursor decode(String cursor) {
+            try {
+                String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = key.indexOf('|');
+                if (separator < 0) {
+                    throw new IllegalArgumentException();
+                }
+                return new PageCursor(LocalDate.parse(key.substring(0, separator)), key.substring(separator + 1));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new RuntimeException("Invalid page cursor: " + cursor);
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.orderservice.repository;
+
+import org.example.orderservice.model.OrderOutboxEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * A worker whose lease ran out and was taken over must not be able to end the event's
+ * lease: only the current lease token may move the event on.
+ */
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.jpa.show-sql=false",
+        // The dispatcher must not lease the test's event itself
+        "order.lifecycle.enabled=false",
+        "order.outbox.poll-interval-ms=3600000",
+        "order.idempotency.purge-interval-ms=3600000"
+})
+class OrderOutboxLeaseTest {
+
+    private static final Set<OrderOutboxEvent.Status> CLAIMABLE =
+            EnumSet.of(OrderOutboxEvent.Status.PENDING, OrderOutboxEvent.Status.IN_PROGRESS);
+
+    @Autowired
+    private OrderOutboxRepository outboxRepository;
+
+    @Test
+    void expiredLeaseHolderCannotFinishTheEvent() {
+        Long id = outboxRepository.save(new OrderOutboxEvent("lease-order", OrderOutboxEvent.EventType.CONFIRM_ORDER))
+                .getId();
+        LocalDateTime now = LocalDateTime.now();
+
+        // The first lease has already run out when the second worker takes the event over
+        assertEquals(1, outboxRepository.acquire(id, CLAIMABLE, OrderOutboxEvent.Status.IN_PROGRESS,
+                now, now.minusSeconds(1), "first"));
+        assertEquals(1, outboxRepository.acquire(id, CLAIMABLE, OrderOutboxEvent.Status.IN_PROGRESS,
+                now, now.plusMinutes(1), "second"));
+
+        assertEquals(0, outboxRepository.release(id, "first", OrderOutboxEvent.Status.IN_PROGRESS,
+                OrderOutboxEvent.Status.FAILED, 5, now, "stale", now));
+        assertEquals(1, outboxRepository.release(id, "second", OrderOutboxEvent.Status.IN_PROGRESS,
+                OrderOutboxEvent.Status.DONE, 0, now, null, now));
+
+        OrderOutboxEvent event = outboxRepository.findById(id).orElseThrow();
+        assertEquals(OrderOutboxEvent.Status.DONE, event.getStatus());
+        assertEquals(0, event.getAttempts());
+    }
+}
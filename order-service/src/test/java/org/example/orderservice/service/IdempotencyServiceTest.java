@@ -0,0 +1,50 @@
+package org.example.orderservice.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * The action runs outside any transaction, since its remote calls could not be rolled back,
+ * and a repeat with the same key gets the recorded response without running it again.
+ */
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.jpa.show-sql=false",
+        "order.lifecycle.enabled=false",
+        "order.outbox.poll-interval-ms=3600000",
+        "order.idempotency.purge-interval-ms=3600000"
+})
+class IdempotencyServiceTest {
+
+    private static final TypeReference<String> STRING = new TypeReference<>() {};
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Test
+    void actionRunsOnceOutsideATransaction() {
+        AtomicInteger runs = new AtomicInteger();
+
+        ResponseEntity<String> first = idempotencyService.execute("PUT /test", "key-1", "body", STRING, () -> {
+            assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+            return ResponseEntity.ok("run-" + runs.incrementAndGet());
+        });
+        idempotencyService.purgeExpired();
+        ResponseEntity<String> repeat = idempotencyService.execute("PUT /test", "key-1", "body", STRING,
+                () -> ResponseEntity.ok("run-" + runs.incrementAndGet()));
+
+        assertEquals(1, runs.get());
+        assertEquals("run-1", first.getBody());
+        assertEquals("run-1", repeat.getBody());
+        assertEquals("true", repeat.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.orderservice.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.orderservice.model.Order;
+import org.example.orderservice.repository.OrderRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Listing orders by date range must run a fixed number of statements whatever the result
+ * size, both through the interval index and through the database fallback: one select
+ * that fetches the orders together with their assigned racks.
+ */
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // Keep the scheduled jobs from adding their own statements to the counts
+        "order.lifecycle.enabled=false",
+        "order.outbox.poll-interval-ms=3600000",
+        "order.idempotency.purge-interval-ms=3600000"
+})
+class OrderDateRangeQueryCountTest {
+
+    private static final LocalDate FROM = LocalDate.of(2030, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2030, 1, 31);
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void restoreIndexSetting() {
+        setIntervalIndexEnabled(true);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void statementCountDoesNotGrowWithResultSize(boolean intervalIndexEnabled) {
+        setIntervalIndexEnabled(intervalIndexEnabled);
+
+        long forOne = statementsToList(1);
+        long forFifty = statementsToList(50);
+
+        // Racks are fetched with the orders; batch fetching would add a second statement
+        assertEquals(1, forOne);
+        assertEquals(forOne, forFifty);
+    }
+
+    private long statementsToList(int matching) {
+        orderRepository.deleteAll();
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < matching; i++) {
+            orders.add(order("q" + matching + "-" + i, FROM.plusDays(i % 20), TO.plusDays(5)));
+        }
+        // One order outside the range, so the index path looks up ids instead of scanning everything
+        orders.add(order("q" + matching + "-outside", FROM.minusDays(40), FROM.minusDays(20)));
+        orderRepository.saveAll(orders);
+        orderService.loadOrderIntervalIndex();
+
+        statistics.clear();
+        int found = orderService.getOrdersByDateRange(FROM, TO).size();
+        long statements = statistics.getPrepareStatementCount();
+
+        assertEquals(matching, found);
+        return statements;
+    }
+
+    private void setIntervalIndexEnabled(boolean enabled) {
+        OrderService target = AopTestUtils.getTargetObject(orderService);
+        ReflectionTestUtils.setField(target, "intervalIndexEnabled", enabled);
+    }
+
+    private static Order order(String orderId, LocalDate startDate, LocalDate endDate) {
+        Order order = new Order(orderId, "user-1", startDate, endDate, 2,
+                Order.RackType.STANDARD, Order.OrderStatus.ACTIVE);
+        order.setAssignedRacks(new ArrayList<>(List.of(orderId + "-a", orderId + "-b")));
+        return order;
+    }
+}
@@ -49,6 +49,16 @@ public class PaymentController {
         }
     }
 
+    @PostMapping("/orders/paid")
+    public ResponseEntity<List<String>> getPaidOrderIds(@RequestBody List<String> orderIds) {
+        try {
+            List<String> paidOrderIds = paymentService.getPaidOrderIds(orderIds);
+            return ResponseEntity.ok(paidOrderIds);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<PaymentDTO>> getPaymentsByUserId(@PathVariable String userId) {
         try {
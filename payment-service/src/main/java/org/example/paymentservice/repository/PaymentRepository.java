@@ -2,13 +2,19 @@ package org.example.paymentservice.repository;
 
 import org.example.paymentservice.model.Payment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, String> {
     List<Payment> findByOrderId(String orderId);
     List<Payment> findByUserId(String userId);
+
+    @Query("SELECT DISTINCT p.orderId FROM Payment p WHERE p.orderId IN :orderIds")
+    List<String> findPaidOrderIds(@Param("orderIds") Collection<String> orderIds);
 }
 
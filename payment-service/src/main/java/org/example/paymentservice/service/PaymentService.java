@@ -1,5 +1,6 @@
 package org.example.paymentservice.service;
 
+import org.example.common.ids.IdGenerator;
 import org.example.paymentservice.dto.CreatePaymentRequestDTO;
 import org.example.paymentservice.dto.PaymentDTO;
 import org.example.paymentservice.model.Payment;
@@ -9,7 +10,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,13 +18,16 @@ public class PaymentService {
     @Autowired
     private PaymentRepository paymentRepository;
 
+    @Autowired
+    private IdGenerator idGenerator;
+
     @Transactional
     public PaymentDTO createPayment(CreatePaymentRequestDTO request) {
         if (request.getAmount().compareTo(java.math.BigDecimal.ZERO) <= 0) {
             throw new RuntimeException("Payment amount must be greater than 0");
         }
 
-        String paymentId = "p" + UUID.randomUUID().toString().substring(0, 8);
+        String paymentId = idGenerator.nextId("p");
         Payment payment = new Payment(
                 paymentId,
                 request.getOrderId(),
@@ -58,6 +61,13 @@ public class PaymentService {
                 .collect(Collectors.toList());
     }
 
+    public List<String> getPaidOrderIds(List<String> orderIds) {
+        if (orderIds == null || orderIds.isEmpty()) {
+            return List.of();
+        }
+        return paymentRepository.findPaidOrderIds(orderIds);
+    }
+
     private PaymentDTO convertToDTO(Payment payment) {
         return new PaymentDTO(
                 payment.getPaymentId(),
@@ -0,0 +1,275 @@
+package org.example.placeservice.client;
+
+import org.example.placeservice.config.PlacePartition;
+import org.example.placeservice.dto.PlaceCountDTO;
+import org.example.placeservice.dto.PlaceDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Queries the other place-service partitions registered in Eureka.
+ * <p>
+ * Fan-out calls run on a bounded pool and share one deadline; a partition that fails,
+ * times out or cannot be scheduled is logged and left out of the result.
+ */
+@Component
+public class PlacePartitionClient {
+
+    public static final String SCOPE_HEADER = "X-Place-Partition-Scope";
+    public static final String SCOPE_LOCAL = "local";
+
+    private static final Logger logger = LoggerFactory.getLogger(PlacePartitionClient.class);
+
+    private final RestTemplate restTemplate;
+    private final DiscoveryClient discoveryClient;
+    private final ObjectProvider<Registration> registration;
+    private final ExecutorService executor;
+    private final String serviceName;
+    private final long fanOutTimeoutMs;
+
+    public PlacePartitionClient(RestTemplate restTemplate,
+                                DiscoveryClient discoveryClient,
+                                ObjectProvider<Registration> registration,
+                                @Qualifier("partitionCallExecutor") ExecutorService executor,
+                                @Value("${spring.application.name}") String serviceName,
+                                @Value("${place.partition.fan-out-timeout-ms:6000}") long fanOutTimeoutMs) {
+        this.restTemplate = restTemplate;
+        this.discoveryClient = discoveryClient;
+        this.registration = registration;
+        this.executor = executor;
+        this.serviceName = serviceName;
+        this.fanOutTimeoutMs = fanOutTimeoutMs;
+    }
+
+    /**
+     * Call {@code path} on every other partition in parallel and concatenate the results.
+     * A partition that fails is logged and skipped so one slow instance does not fail the listing.
+     */
+    public List<PlaceDTO> getFromPeers(String path) {
+        List<PlaceDTO> places = new ArrayList<>();
+        fanOut(peer -> get(peer, path, new ParameterizedTypeReference<List<PlaceDTO>>() {}))
+                .values()
+                .forEach(places::addAll);
+        return places;
+    }
+
+    /**
+     * Fetch the rack counts at {@code path} from every other partition; failed partitions are skipped.
+     */
+    public List<PlaceCountDTO> getCountsFromPeers(String path) {
+        return new ArrayList<>(getCountsByPeer(path).values());
+    }
+
+    /**
+     * Rack counts at {@code path} per other partition, in discovery order; failed partitions are skipped.
+     */
+    public Map<ServiceInstance, PlaceCountDTO> getCountsByPeer(String path) {
+        return fanOut(peer -> get(peer, path, new ParameterizedTypeReference<PlaceCountDTO>() {}));
+    }
+
+    /**
+     * Which of the racks each other partition stores. Fails if a partition could not be asked,
+     * since its racks cannot be told apart from racks that do not exist.
+     */
+    public Map<ServiceInstance, List<String>> findOwners(List<String> rackIds) {
+        List<ServiceInstance> peers = getPeers();
+        Map<ServiceInstance, List<String>> owned = fanOut(peers, peer -> post(peer, "/api/places/lookup", rackIds,
+                new ParameterizedTypeReference<List<String>>() {}));
+        if (owned.size() < peers.size()) {
+            throw new RuntimeException("Place partition unavailable, cannot locate racks " + rackIds);
+        }
+        owned.values().removeIf(List::isEmpty);
+        return owned;
+    }
+
+    /**
+     * Racks each other partition holds under the claim key. Fails if a partition could not be
+     * asked, since a repeated claim would otherwise occupy racks it already holds there.
+     */
+    public Map<ServiceInstance, List<String>> findClaimed(String claimKey) {
+        List<ServiceInstance> peers = getPeers();
+        String path = claimPath(claimKey, "");
+        Map<ServiceInstance, List<String>> claimed = fanOut(peers, peer -> get(peer, path,
+                new ParameterizedTypeReference<List<String>>() {}));
+        if (claimed.size() < peers.size()) {
+            throw new RuntimeException("Place partition unavailable, cannot find racks of claim " + claimKey);
+        }
+        claimed.values().removeIf(List::isEmpty);
+        return claimed;
+    }
+
+    /**
+     * Release the claim key on one partition. Returns the racks it freed.
+     */
+    public List<String> releaseClaim(ServiceInstance peer, String claimKey) {
+        return post(peer, claimPath(claimKey, "/release"), null, new ParameterizedTypeReference<List<String>>() {});
+    }
+
+    /**
+     * Release the claim key on every other partition. Returns the racks freed per partition;
+     * a partition that fails is logged and left out.
+     */
+    public Map<ServiceInstance, List<String>> releaseClaimOnPeers(String claimKey) {
+        return fanOut(peer -> releaseClaim(peer, claimKey));
+    }
+
+    /**
+     * Release several claim keys on every other partition, one call per partition.
+     */
+    public Map<ServiceInstance, List<String>> releaseClaimsOnPeers(List<String> claimKeys) {
+        return fanOut(peer -> post(peer, "/api/places/claims/release", claimKeys,
+                new ParameterizedTypeReference<List<String>>() {}));
+    }
+
+    /**
+     * GET {@code path} from a partition that owns the section, trying the next owner if one
+     * fails. Fails if no owner could answer, rather than returning a partial result.
+     */
+    public List<PlaceDTO> getFromSectionOwner(String sectionCode, String path) {
+        for (ServiceInstance peer : getPeers()) {
+            if (!ownsSection(peer, sectionCode)) {
+                continue;
+            }
+            try {
+                return get(peer, path, new ParameterizedTypeReference<List<PlaceDTO>>() {});
+            } catch (RestClientException e) {
+                logger.warn("Partition {} owning section {} unavailable: {}",
+                        peer.getInstanceId(), sectionCode, e.getMessage());
+            }
+        }
+        throw new RuntimeException("No place partition serving section " + sectionCode + " is available");
+    }
+
+    /**
+     * POST {@code body} to one partition, restricted to its own racks. Errors are rethrown
+     * with the partition's message so callers can report them like local failures.
+     */
+    public <T> T post(ServiceInstance peer, String path, Object body, ParameterizedTypeReference<T> responseType) {
+        try {
+            ResponseEntity<T> response = restTemplate.exchange(
+                    peer.getUri() + path,
+                    HttpMethod.POST,
+                    new HttpEntity<>(body, localScope()),
+                    responseType
+            );
+            return response.getBody();
+        } catch (HttpStatusCodeException e) {
+            Map<?, ?> error = e.getResponseBodyAs(Map.class);
+            Object message = error != null ? error.get("message") : null;
+            throw new RuntimeException(message != null ? message.toString() : e.getMessage());
+        } catch (RestClientException e) {
+            throw new RuntimeException("Place partition " + peer.getInstanceId() + " unavailable: " + e.getMessage());
+        }
+    }
+
+    public List<ServiceInstance> getPeers() {
+        Registration self = registration.getIfAvailable();
+        String selfId = self != null ? self.getInstanceId() : null;
+        return discoveryClient.getInstances(serviceName).stream()
+                .filter(instance -> selfId == null || !selfId.equals(instance.getInstanceId()))
+                .collect(Collectors.toList());
+    }
+
+    private <T> Map<ServiceInstance, T> fanOut(Function<ServiceInstance, T> call) {
+        return fanOut(getPeers(), call);
+    }
+
+    /**
+     * Run {@code call} against every peer in parallel within the fan-out deadline and
+     * return the results that arrived, in peer order.
+     */
+    private <T> Map<ServiceInstance, T> fanOut(List<ServiceInstance> peers, Function<ServiceInstance, T> call) {
+        Map<ServiceInstance, Future<T>> calls = new LinkedHashMap<>();
+        for (ServiceInstance peer : peers) {
+            try {
+                calls.put(peer, executor.submit(() -> call.apply(peer)));
+            } catch (RejectedExecutionException e) {
+                logger.warn("Partition {} skipped, too many calls in flight", peer.getInstanceId());
+            }
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(fanOutTimeoutMs);
+        Map<ServiceInstance, T> results = new LinkedHashMap<>();
+        calls.forEach((peer, future) -> {
+            try {
+                T result = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (result != null) {
+                    results.put(peer, result);
+                }
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                logger.warn("Partition {} timed out, skipping", peer.getInstanceId());
+            } catch (ExecutionException e) {
+                logger.warn("Partition {} unavailable, skipping: {}", peer.getInstanceId(), e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                future.cancel(true);
+                Thread.currentThread().interrupt();
+            }
+        });
+        return results;
+    }
+
+    private <T> T get(ServiceInstance peer, String path, ParameterizedTypeReference<T> responseType) {
+        ResponseEntity<T> response = restTemplate.exchange(
+                peer.getUri() + path,
+                HttpMethod.GET,
+                new HttpEntity<>(localScope()),
+                responseType
+        );
+        return response.getBody();
+    }
+
+    private static boolean ownsSection(ServiceInstance peer, String sectionCode) {
+        String sections = peer.getMetadata().get(PlacePartition.SECTIONS_METADATA);
+        if (sections == null || sections.isBlank()) {
+            // An instance without sections stores every rack
+            return true;
+        }
+        return Arrays.stream(sections.split(","))
+                .map(String::trim)
+                .anyMatch(sectionCode::equalsIgnoreCase);
+    }
+
+    private static String claimPath(String claimKey, String suffix) {
+        return UriComponentsBuilder.fromPath("/api/places/claims/{claimKey}" + suffix)
+                .buildAndExpand(claimKey)
+                .encode()
+                .toUriString();
+    }
+
+    private static HttpHeaders localScope() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(SCOPE_HEADER, SCOPE_LOCAL);
+        return headers;
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.placeservice.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Streamed responses (NDJSON listings and imports) are written on their own bounded pool
+ * under an explicit timeout. Without it the servlet container's 30 second async default
+ * applies and cuts off long imports and large listings mid-stream.
+ */
+@Configuration
+public class AsyncSupportConfig implements WebMvcConfigurer, DisposableBean {
+
+    private final long timeoutMs;
+    private final ThreadPoolTaskExecutor executor;
+
+    public AsyncSupportConfig(@Value("${place.stream.timeout-ms:3600000}") long timeoutMs,
+                              @Value("${place.stream.pool-size:16}") int poolSize,
+                              @Value("${place.stream.queue-capacity:100}") int queueCapacity) {
+        this.timeoutMs = timeoutMs;
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("stream-");
+        executor.initialize();
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(timeoutMs);
+        configurer.setTaskExecutor(executor);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.placeservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded pool for the parallel calls to other partitions. When the pool and its queue
+ * are full, new calls are rejected instead of piling up behind a slow instance.
+ */
+@Configuration
+public class PartitionCallExecutorConfig {
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService partitionCallExecutor(@Value("${place.partition.pool-size:8}") int poolSize,
+                                                 @Value("${place.partition.queue-capacity:100}") int queueCapacity) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "partition-call-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.placeservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The warehouse sections owned by this place-service instance, configured through
+ * {@code place.sections} (comma-separated). An empty list means the instance owns
+ * every section and no fan-out is needed. Racks without a section belong to the
+ * partition that lists {@value #UNASSIGNED_SECTION}.
+ */
+@Component
+public class PlacePartition {
+
+    public static final String UNASSIGNED_SECTION = "NONE";
+    // Eureka metadata entry through which an instance advertises its sections
+    public static final String SECTIONS_METADATA = "sections";
+
+    private final Set<String> sections;
+
+    public PlacePartition(@Value("${place.sections:}") String sections) {
+        Set<String> owned = Arrays.stream(sections.split(","))
+                .map(String::trim)
+                .filter(section -> !section.isEmpty())
+                .map(String::toUpperCase)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        this.sections = Collections.unmodifiableSet(owned);
+    }
+
+    public boolean isPartitioned() {
+        return !sections.isEmpty();
+    }
+
+    public Set<String> getSections() {
+        return sections;
+    }
+
+    public boolean owns(String sectionCode) {
+        if (!isPartitioned()) {
+            return true;
+        }
+        return sections.contains(sectionCode != null ? sectionCode.toUpperCase() : UNASSIGNED_SECTION);
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.placeservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+@Configuration
+public class RestTemplateConfig {
+
+    /**
+     * Plain (not load-balanced) client: partition fan-out addresses each
+     * place-service instance directly. Timeouts keep a hung instance from
+     * holding a fan-out thread indefinitely.
+     */
+    @Bean
+    public RestTemplate restTemplate(@Value("${place.partition.connect-timeout-ms:1000}") int connectTimeoutMs,
+                                     @Value("${place.partition.read-timeout-ms:5000}") int readTimeoutMs) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeoutMs);
+        requestFactory.setReadTimeout(readTimeoutMs);
+        return new RestTemplate(requestFactory);
+    }
+}
@@ -1,5 +1,6 @@
 package org.example.placeservice.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -8,15 +9,37 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.example.placeservice.client.PlacePartitionClient;
+import org.example.placeservice.dto.BookPlacesRequestDTO;
+import org.example.placeservice.dto.ClaimPlacesRequestDTO;
+import org.example.placeservice.dto.ClaimPlacesResultDTO;
 import org.example.placeservice.dto.GivePlacesRequestDTO;
 import org.example.placeservice.dto.PlaceDTO;
+import org.example.placeservice.dto.PlaceImportProgressDTO;
+import org.example.placeservice.dto.PlaceCountDTO;
+import org.example.placeservice.dto.PlacePageDTO;
+import org.example.placeservice.dto.RackStatusEventDTO;
+import org.example.placeservice.service.PlaceEventPublisher;
+import org.example.placeservice.service.PlaceImportService;
+import org.example.placeservice.service.PlaceJsonCache;
+import org.example.placeservice.service.PlaceSnapshotService;
+import org.example.placeservice.service.PlacePartitionService;
 import org.example.placeservice.service.PlaceService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/places")
@@ -26,6 +49,24 @@ public class PlaceController {
     @Autowired
     private PlaceService placeService;
 
+    @Autowired
+    private PlacePartitionService placePartitionService;
+
+    @Autowired
+    private PlaceImportService placeImportService;
+
+    @Autowired
+    private PlaceEventPublisher placeEventPublisher;
+
+    @Autowired
+    private PlaceJsonCache placeJsonCache;
+
+    @Autowired
+    private PlaceSnapshotService placeSnapshotService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Operation(summary = "Отримати всі вільні місця", 
                description = "Повертає список всіх вільних місць на складі")
     @ApiResponses(value = {
@@ -35,8 +76,72 @@ public class PlaceController {
         @ApiResponse(responseCode = "500", description = "Внутрішня помилка сервера")
     })
     @GetMapping("/free")
-    public ResponseEntity<List<PlaceDTO>> getAllFreePlaces() {
-        List<PlaceDTO> places = placeService.getAllFreePlaces();
+    public ResponseEntity<StreamingResponseBody> getAllFreePlaces(
+            @Parameter(description = "local - повернути лише місця цього розділу (для внутрішніх запитів)")
+            @RequestHeader(value = PlacePartitionClient.SCOPE_HEADER, required = false) String scope) {
+        List<PlaceDTO> places = placePartitionService.getAllFreePlaces(isLocalScope(scope));
+        return jsonArray(places);
+    }
+
+    @Operation(summary = "Отримати сторінку вільних місць",
+               description = "Повертає вільні місця, впорядковані за ID, починаючи після курсора. " +
+                             "Поле nextCursor містить курсор наступної сторінки або null, якщо сторінок більше немає.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Сторінка вільних місць",
+                    content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = PlacePageDTO.class))),
+        @ApiResponse(responseCode = "500", description = "Внутрішня помилка сервера")
+    })
+    @GetMapping("/free/page")
+    public ResponseEntity<PlacePageDTO> getFreePlacesPage(
+            @Parameter(description = "ID останнього місця попередньої сторінки")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Розмір сторінки (1-1000, за замовчуванням 100)")
+            @RequestParam(required = false) Integer size) {
+        PlacePageDTO page = placeService.getFreePlacesPage(after, size);
+        return ResponseEntity.ok(page);
+    }
+
+    @Operation(summary = "Потокове отримання вільних місць",
+               description = "Повертає всі вільні місця у форматі NDJSON (один JSON-об'єкт на рядок) " +
+                             "без побудови повного списку в пам'яті")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Потік вільних місць",
+                    content = @Content(mediaType = "application/x-ndjson",
+                    schema = @Schema(implementation = PlaceDTO.class))),
+        @ApiResponse(responseCode = "500", description = "Внутрішня помилка сервера")
+    })
+    @GetMapping(value = "/free/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamFreePlaces() {
+        StreamingResponseBody body = placeService::streamFreePlaces;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @Operation(summary = "Підібрати вільні місця за розмірами",
+               description = "Повертає вільні місця, не менші за вказані розміри, " +
+                             "впорядковані від найменшого достатнього об'єму")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Список відповідних місць",
+                    content = @Content(mediaType = "application/json",
+                    array = @ArraySchema(schema = @Schema(implementation = PlaceDTO.class)))),
+        @ApiResponse(responseCode = "400", description = "Невірні розміри або тип місця"),
+        @ApiResponse(responseCode = "500", description = "Внутрішня помилка сервера")
+    })
+    @GetMapping("/free/fit")
+    public ResponseEntity<List<PlaceDTO>> getBestFitPlaces(
+            @Parameter(description = "Мінімальна ширина")
+            @RequestParam(required = false) Integer minWidth,
+            @Parameter(description = "Мінімальна висота")
+            @RequestParam(required = false) Integer minHeight,
+            @Parameter(description = "Мінімальна глибина")
+            @RequestParam(required = false) Integer minDepth,
+            @Parameter(description = "Тип місця: STANDARD, REFRIGERATED або SECURE")
+            @RequestParam(required = false) String type,
+            @Parameter(description = "Максимальна кількість результатів (за замовчуванням 10)")
+            @RequestParam(required = false) Integer limit) {
+        List<PlaceDTO> places = placeService.getBestFitPlaces(minWidth, minHeight, minDepth, type, limit);
         return ResponseEntity.ok(places);
     }
 
@@ -49,11 +154,55 @@ public class PlaceController {
         @ApiResponse(responseCode = "500", description = "Внутрішня помилка сервера")
     })
     @GetMapping("/free/type/{type}")
-    public ResponseEntity<List<PlaceDTO>> getFreePlacesByType(
+    public ResponseEntity<StreamingResponseBody> getFreePlacesByType(
             @Parameter(description = "Тип місця: STANDARD, REFRIGERATED або SECURE", required = true)
-            @PathVariable String type) {
-        List<PlaceDTO> places = placeService.getFreePlacesByType(type);
-        return ResponseEntity.ok(places);
+            @PathVariable String type,
+            @Parameter(description = "local - повернути лише місця цього розділу (для внутрішніх запитів)")
+            @RequestHeader(value = PlacePartitionClient.SCOPE_HEADER, required = false) String scope) {
+        List<PlaceDTO> places = placePartitionService.getFreePlacesByType(type, isLocalScope(scope));
+        return jsonArray(places);
+    }
+
+    @Operation(summary = "Отримати кількість вільних місць",
+               description = "Повертає кількість вільних та зайнятих місць за типом та/або розділом " +
+                             "з лічильників, без завантаження списку місць")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Кількість місць",
+                    content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = PlaceCountDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Невірний тип місця"),
+        @ApiResponse(responseCode = "500", description = "Внутрішня помилка сервера")
+    })
+    @GetMapping("/free/count")
+    public ResponseEntity<PlaceCountDTO> countFreePlaces(
+            @Parameter(description = "Тип місця: STANDARD, REFRIGERATED або SECURE")
+            @RequestParam(required = false) String type,
+            @Parameter(description = "Код розділу складу (NONE - місця без розділу)")
+            @RequestParam(required = false) String section,
+            @Parameter(description = "local - повернути лише місця цього розділу (для внутрішніх запитів)")
+            @RequestHeader(value = PlacePartitionClient.SCOPE_HEADER, required = false) String scope) {
+        PlaceCountDTO count = placePartitionService.countPlaces(type, section, isLocalScope(scope));
+        return ResponseEntity.ok(count);
+    }
+
+    @Operation(summary = "Отримати вільні місця розділу",
+               description = "Повертає вільні місця вказаного розділу складу (NONE - місця без розділу). " +
+                             "API Gateway направляє запит безпосередньо до екземпляра, що обслуговує розділ; " +
+                             "екземпляр, що не обслуговує розділ, отримує місця від того, що обслуговує.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Список вільних місць розділу",
+                    content = @Content(mediaType = "application/json",
+                    array = @ArraySchema(schema = @Schema(implementation = PlaceDTO.class)))),
+        @ApiResponse(responseCode = "500", description = "Внутрішня помилка сервера або розділ недоступний")
+    })
+    @GetMapping("/free/section/{sectionCode}")
+    public ResponseEntity<StreamingResponseBody> getFreePlacesBySection(
+            @Parameter(description = "Код розділу складу", required = true)
+            @PathVariable String sectionCode,
+            @Parameter(description = "local - повернути лише місця цього розділу (для внутрішніх запитів)")
+            @RequestHeader(value = PlacePartitionClient.SCOPE_HEADER, required = false) String scope) {
+        List<PlaceDTO> places = placePartitionService.getFreePlacesBySection(sectionCode, isLocalScope(scope));
+        return jsonArray(places);
     }
 
     @Operation(summary = "Отримати місця користувача",
@@ -84,11 +233,111 @@ public class PlaceController {
             @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Запит на призначення місць",
                     required = true,
                     content = @Content(schema = @Schema(implementation = GivePlacesRequestDTO.class)))
-            @RequestBody GivePlacesRequestDTO request) {
-        placeService.givePlacesToUser(request);
+            @RequestBody GivePlacesRequestDTO request,
+            @Parameter(description = "local - змінити лише місця цього розділу (для внутрішніх запитів)")
+            @RequestHeader(value = PlacePartitionClient.SCOPE_HEADER, required = false) String scope) {
+        placePartitionService.givePlacesToUser(request, isLocalScope(scope));
         return ResponseEntity.status(HttpStatus.OK).build();
     }
 
+    @Operation(summary = "Зарезервувати вільні місця за типом",
+               description = "Атомарно обирає та призначає користувачу вказану кількість вільних місць " +
+                             "відповідного типу. Повертає ID призначених місць.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Місця успішно призначені",
+                    content = @Content(mediaType = "application/json",
+                    array = @ArraySchema(schema = @Schema(implementation = String.class)))),
+        @ApiResponse(responseCode = "400", description = "Невірний запит (недостатньо вільних місць)"),
+        @ApiResponse(responseCode = "500", description = "Внутрішня помилка сервера")
+    })
+    @PostMapping("/claim")
+    public ResponseEntity<List<String>> claimPlaces(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Запит на резервування місць",
+                    required = true,
+                    content = @Content(schema = @Schema(implementation = ClaimPlacesRequestDTO.class)))
+            @RequestBody ClaimPlacesRequestDTO request,
+            @Parameter(description = "local - змінити лише місця цього розділу (для внутрішніх запитів)")
+            @RequestHeader(value = PlacePartitionClient.SCOPE_HEADER, required = false) String scope) {
+        List<String> placeIds = placePartitionService.claimPlaces(request, isLocalScope(scope));
+        return ResponseEntity.ok(placeIds);
+    }
+
+    @Operation(summary = "Отримати місця резервування",
+               description = "Повертає ID місць, зайнятих резервуванням з вказаним ключем")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "ID місць резервування",
+                    content = @Content(mediaType = "application/json",
+                    array = @ArraySchema(schema = @Schema(implementation = String.class)))),
+        @ApiResponse(responseCode = "500", description = "Внутрішня помилка сервера")
+    })
+    @GetMapping("/claims/{claimKey}")
+    public ResponseEntity<List<String>> getClaimedPlaces(
+            @Parameter(description = "Ключ резервування", required = true)
+            @PathVariable String claimKey,
+            @Parameter(description = "local - повернути лише місця цього розділу (для внутрішніх запитів)")
+            @RequestHeader(value = PlacePartitionClient.SCOPE_HEADER, required = false) String scope) {
+        return ResponseEntity.ok(placePartitionService.findClaimedRackIds(claimKey, isLocalScope(scope)));
+    }
+
+    @Operation(summary = "Скасувати резервування",
+               description = "Звільняє місця, які досі зайняті резервуванням з вказаним ключем. " +
+                             "Місця, що вже звільнені або передані іншому резервуванню, не змінюються. " +
+                             "Повертає ID звільнених місць.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "ID звільнених місць",
+                    content = @Content(mediaType = "application/json",
+                    array = @ArraySchema(schema = @Schema(implementation = String.class)))),
+        @ApiResponse(responseCode = "500", description = "Внутрішня помилка сервера")
+    })
+    @PostMapping("/claims/{claimKey}/release")
+    public ResponseEntity<List<String>> releaseClaim(
+            @Parameter(description = "Ключ резервування", required = true)
+            @PathVariable String claimKey,
+            @Parameter(description = "local - змінити лише місця цього розділу (для внутрішніх запитів)")
+            @RequestHeader(value = PlacePartitionClient.SCOPE_HEADER, required = false) String scope) {
+        return ResponseEntity.ok(placePartitionService.releaseClaim(claimKey, isLocalScope(scope)));
+    }
+
+    @Operation(summary = "Скасувати кілька резервувань",
+               description = "Звільняє місця, які досі зайняті резервуваннями з вказаними ключами, " +
+                             "за один виклик. Повертає ID звільнених місць.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "ID звільнених місць",
+                    content = @Content(mediaType = "application/json",
+                    array = @ArraySchema(schema = @Schema(implementation = String.class)))),
+        @ApiResponse(responseCode = "500", description = "Внутрішня помилка сервера")
+    })
+    @PostMapping("/claims/release")
+    public ResponseEntity<List<String>> releaseClaims(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Ключі резервувань",
+                    required = true)
+            @RequestBody List<String> claimKeys,
+            @Parameter(description = "local - змінити лише місця цього розділу (для внутрішніх запитів)")
+            @RequestHeader(value = PlacePartitionClient.SCOPE_HEADER, required = false) String scope) {
+        return ResponseEntity.ok(placePartitionService.releaseClaims(claimKeys, isLocalScope(scope)));
+    }
+
+    @Operation(summary = "Зарезервувати вільні місця для кількох запитів",
+               description = "Виконує кілька запитів на резервування за один виклик. Результати повертаються " +
+                             "в порядку запитів; запит, який не вдалося виконати, містить поле error " +
+                             "і не скасовує інші.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Результати резервування",
+                    content = @Content(mediaType = "application/json",
+                    array = @ArraySchema(schema = @Schema(implementation = ClaimPlacesResultDTO.class)))),
+        @ApiResponse(responseCode = "500", description = "Внутрішня помилка сервера")
+    })
+    @PostMapping("/claim-batch")
+    public ResponseEntity<List<ClaimPlacesResultDTO>> claimPlacesBatch(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Запити на резервування місць",
+                    required = true,
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = ClaimPlacesRequestDTO.class))))
+            @RequestBody List<ClaimPlacesRequestDTO> requests,
+            @Parameter(description = "local - змінити лише місця цього розділу (для внутрішніх запитів)")
+            @RequestHeader(value = PlacePartitionClient.SCOPE_HEADER, required = false) String scope) {
+        return ResponseEntity.ok(placePartitionService.claimPlacesBatch(requests, isLocalScope(scope)));
+    }
+
     @Operation(summary = "Звільнити місця",
                description = "Звільняє вказані місця, роблячи їх доступними для оренди")
     @ApiResponses(value = {
@@ -100,9 +349,165 @@ public class PlaceController {
     public ResponseEntity<Void> makePlacesFree(
             @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Список ID місць для звільнення",
                     required = true)
+            @RequestBody List<String> placeIds,
+            @Parameter(description = "local - змінити лише місця цього розділу (для внутрішніх запитів)")
+            @RequestHeader(value = PlacePartitionClient.SCOPE_HEADER, required = false) String scope) {
+        placePartitionService.makePlacesFree(placeIds, isLocalScope(scope));
+        return ResponseEntity.status(HttpStatus.OK).build();
+    }
+
+    @Operation(summary = "Знайти місця цього розділу",
+               description = "Повертає ті з вказаних ID, що зберігаються в цьому екземплярі " +
+                             "(для маршрутизації запитів між розділами)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "ID місць цього розділу",
+                    content = @Content(mediaType = "application/json",
+                    array = @ArraySchema(schema = @Schema(implementation = String.class)))),
+        @ApiResponse(responseCode = "500", description = "Внутрішня помилка сервера")
+    })
+    @PostMapping("/lookup")
+    public ResponseEntity<List<String>> lookupPlaces(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Список ID місць", required = true)
             @RequestBody List<String> placeIds) {
-        placeService.makePlacesFree(placeIds);
+        return ResponseEntity.ok(placeService.findStoredRackIds(placeIds));
+    }
+
+    @Operation(summary = "Отримати місця, доступні на період",
+               description = "Повертає вільні місця відповідного типу, які не заброньовані " +
+                             "в жодний день періоду [from, to]")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Список доступних місць",
+                    content = @Content(mediaType = "application/json",
+                    array = @ArraySchema(schema = @Schema(implementation = PlaceDTO.class)))),
+        @ApiResponse(responseCode = "400", description = "Невірний період або тип місця"),
+        @ApiResponse(responseCode = "500", description = "Внутрішня помилка сервера")
+    })
+    @GetMapping("/available")
+    public ResponseEntity<List<PlaceDTO>> getAvailablePlaces(
+            @Parameter(description = "Тип місця: STANDARD, REFRIGERATED або SECURE", required = true)
+            @RequestParam String type,
+            @Parameter(description = "Початок періоду (включно)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Кінець періоду (включно)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        List<PlaceDTO> places = placeService.getAvailablePlaces(type, from, to);
+        return ResponseEntity.ok(places);
+    }
+
+    @Operation(summary = "Забронювати місця на період",
+               description = "Бронює вказані місця для користувача на період [from, to]. " +
+                             "Бронюються або всі місця, або жодне.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Місця успішно заброньовані"),
+        @ApiResponse(responseCode = "400", description = "Невірний запит (місце вже заброньоване або не існує)"),
+        @ApiResponse(responseCode = "500", description = "Внутрішня помилка сервера")
+    })
+    @PostMapping("/bookings")
+    public ResponseEntity<Void> bookPlaces(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Запит на бронювання місць",
+                    required = true,
+                    content = @Content(schema = @Schema(implementation = BookPlacesRequestDTO.class)))
+            @RequestBody BookPlacesRequestDTO request) {
+        placeService.bookPlaces(request);
         return ResponseEntity.status(HttpStatus.OK).build();
     }
-}
 
+    @Operation(summary = "Скасувати бронювання місць",
+               description = "Видаляє бронювання вказаних місць на період [from, to]")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Бронювання скасовано"),
+        @ApiResponse(responseCode = "400", description = "Невірний період"),
+        @ApiResponse(responseCode = "500", description = "Внутрішня помилка сервера")
+    })
+    @PostMapping("/bookings/release")
+    public ResponseEntity<Void> releaseBookings(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Місця та період бронювання",
+                    required = true,
+                    content = @Content(schema = @Schema(implementation = BookPlacesRequestDTO.class)))
+            @RequestBody BookPlacesRequestDTO request) {
+        placeService.releaseBookings(request);
+        return ResponseEntity.status(HttpStatus.OK).build();
+    }
+
+    @Operation(summary = "Імпортувати місця",
+               description = "Потоково імпортує JSON-масив місць (або документ з масивом \"racks\", " +
+                             "як у json/warehouse_data.json). Прогрес повертається у форматі NDJSON " +
+                             "після кожної записаної порції; останній рядок містить підсумок та помилки.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Потік прогресу імпорту",
+                    content = @Content(mediaType = "application/x-ndjson",
+                    schema = @Schema(implementation = PlaceImportProgressDTO.class))),
+        @ApiResponse(responseCode = "500", description = "Внутрішня помилка сервера")
+    })
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE,
+                 produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importPlaces(HttpServletRequest request) {
+        StreamingResponseBody body = out -> placeImportService.importPlaces(request.getInputStream(), progress -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(progress));
+                out.write('\n');
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @Operation(summary = "Підписатися на зміни статусів місць",
+               description = "Server-sent events: подія rack-status для кожної зміни статусу " +
+                             "(id має вигляд epoch-номер, номер послідовності монотонний), періодична подія snapshot " +
+                             "з усіма вільними місцями та подія reset, якщо запитана подія вже не зберігається " +
+                             "або належить до попереднього запуску сервісу. " +
+                             "Для відновлення передайте Last-Event-ID або параметр since.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Потік подій",
+                    content = @Content(mediaType = "text/event-stream",
+                    schema = @Schema(implementation = RackStatusEventDTO.class))),
+        @ApiResponse(responseCode = "500", description = "Внутрішня помилка сервера")
+    })
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToEvents(
+            @Parameter(description = "Ідентифікатор останньої отриманої події")
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @Parameter(description = "Ідентифікатор останньої отриманої події (альтернатива Last-Event-ID)")
+            @RequestParam(required = false) String since) {
+        return placeEventPublisher.subscribe(lastEventId != null ? lastEventId : since);
+    }
+
+    @Operation(summary = "Перевірити індекс вільних місць",
+               description = "Порівнює in-memory індекс вільних місць з таблицею places")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Звіт про узгодженість індексу"),
+        @ApiResponse(responseCode = "500", description = "Внутрішня помилка сервера")
+    })
+    @GetMapping("/free/index/check")
+    public ResponseEntity<Map<String, Object>> checkFreePlaceIndex() {
+        return ResponseEntity.ok(placeService.checkFreePlaceIndex());
+    }
+
+    @Operation(summary = "Зберегти знімок таблиці місць",
+               description = "Записує всі місця у файл знімка (place.snapshot.path), " +
+                             "з якого порожня база відновлюється під час запуску")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Кількість збережених місць"),
+        @ApiResponse(responseCode = "500", description = "Внутрішня помилка сервера")
+    })
+    @PostMapping("/snapshot")
+    public ResponseEntity<Map<String, Object>> writeSnapshot() {
+        return ResponseEntity.ok(Map.of("racks", placeSnapshotService.write()));
+    }
+
+    private ResponseEntity<StreamingResponseBody> jsonArray(List<PlaceDTO> places) {
+        StreamingResponseBody body = out -> placeJsonCache.writeArray(places, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    private boolean isLocalScope(String scope) {
+        return PlacePartitionClient.SCOPE_LOCAL.equalsIgnoreCase(scope);
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.placeservice.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class BookPlacesRequestDTO {
+    private List<String> placeIds;
+    private String userId;
+    private LocalDate from;
+    private LocalDate to;
+
+    public BookPlacesRequestDTO() {
+    }
+
+    public BookPlacesRequestDTO(List<String> placeIds, String userId, LocalDate from, LocalDate to) {
+        this.placeIds = placeIds;
+        this.userId = userId;
+        this.from = from;
+        this.to = to;
+    }
+
+    public List<String> getPlaceIds() {
+        return placeIds;
+    }
+
+    public void setPlaceIds(List<String> placeIds) {
+        this.placeIds = placeIds;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+}
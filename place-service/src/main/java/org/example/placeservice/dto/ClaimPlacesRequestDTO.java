@@ -0,0 +1,55 @@
+package org.example.placeservice.dto;
+
+public class ClaimPlacesRequestDTO {
+    private String type;
+    private Integer count;
+    private String userId;
+    // Optional: repeating a claim with the same key returns the racks it already holds
+    private String claimKey;
+
+    public ClaimPlacesRequestDTO() {
+    }
+
+    public ClaimPlacesRequestDTO(String type, Integer count, String userId) {
+        this(type, count, userId, null);
+    }
+
+    public ClaimPlacesRequestDTO(String type, Integer count, String userId, String claimKey) {
+        this.type = type;
+        this.count = count;
+        this.userId = userId;
+        this.claimKey = claimKey;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Integer getCount() {
+        return count;
+    }
+
+    public void setCount(Integer count) {
+        this.count = count;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getClaimKey() {
+        return claimKey;
+    }
+
+    public void setClaimKey(String claimKey) {
+        this.claimKey = claimKey;
+    }
+}
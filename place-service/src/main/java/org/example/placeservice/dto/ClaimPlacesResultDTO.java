@@ -0,0 +1,35 @@
+package org.example.placeservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ClaimPlacesResultDTO {
+    private List<String> placeIds;
+    private String error;
+
+    public ClaimPlacesResultDTO() {
+    }
+
+    public ClaimPlacesResultDTO(List<String> placeIds, String error) {
+        this.placeIds = placeIds;
+        this.error = error;
+    }
+
+    public List<String> getPlaceIds() {
+        return placeIds;
+    }
+
+    public void setPlaceIds(List<String> placeIds) {
+        this.placeIds = placeIds;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
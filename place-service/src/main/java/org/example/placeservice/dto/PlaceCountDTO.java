@@ -0,0 +1,50 @@
+package org.example.placeservice.dto;
+
+public class PlaceCountDTO {
+    private String type;
+    private String sectionCode;
+    private long free;
+    private long occupied;
+
+    public PlaceCountDTO() {
+    }
+
+    public PlaceCountDTO(String type, String sectionCode, long free, long occupied) {
+        this.type = type;
+        this.sectionCode = sectionCode;
+        this.free = free;
+        this.occupied = occupied;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getSectionCode() {
+        return sectionCode;
+    }
+
+    public void setSectionCode(String sectionCode) {
+        this.sectionCode = sectionCode;
+    }
+
+    public long getFree() {
+        return free;
+    }
+
+    public void setFree(long free) {
+        this.free = free;
+    }
+
+    public long getOccupied() {
+        return occupied;
+    }
+
+    public void setOccupied(long occupied) {
+        this.occupied = occupied;
+    }
+}
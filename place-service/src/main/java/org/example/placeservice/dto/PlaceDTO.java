@@ -1,5 +1,7 @@
 package org.example.placeservice.dto;
 
+import org.example.placeservice.model.Place;
+
 import java.math.BigDecimal;
 
 public class PlaceDTO {
@@ -28,6 +30,16 @@ public class PlaceDTO {
         this.tenantId = tenantId;
     }
 
+    /**
+     * Constructor used by JPQL projections, reading flat columns without loading entities.
+     */
+    public PlaceDTO(String rackId, String sectionCode, Integer number, Place.RackType type,
+                    Place.RackStatus status, BigDecimal pricePerDay, Integer width, Integer height,
+                    Integer depth, String tenantId) {
+        this(rackId, sectionCode, number, type.name(), status.name(), pricePerDay,
+                new DimensionsDTO(width, height, depth), tenantId);
+    }
+
     // Getters and Setters
     public String getRackId() {
         return rackId;
@@ -0,0 +1,86 @@
+package org.example.placeservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PlaceImportProgressDTO {
+    private long processed;
+    private long imported;
+    private long skipped;
+    private long failed;
+    private long elapsedMs;
+    private boolean done;
+    private List<String> errors;
+
+    public PlaceImportProgressDTO() {
+    }
+
+    public PlaceImportProgressDTO(long processed, long imported, long skipped, long failed,
+                                  long elapsedMs, boolean done, List<String> errors) {
+        this.processed = processed;
+        this.imported = imported;
+        this.skipped = skipped;
+        this.failed = failed;
+        this.elapsedMs = elapsedMs;
+        this.done = done;
+        this.errors = errors;
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public void setProcessed(long processed) {
+        this.processed = processed;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public void setSkipped(long skipped) {
+        this.skipped = skipped;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public void setElapsedMs(long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    public void setDone(boolean done) {
+        this.done = done;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.placeservice.dto;
+
+import java.util.List;
+
+public class PlacePageDTO {
+    private List<PlaceDTO> items;
+    private String nextCursor;
+
+    public PlacePageDTO() {
+    }
+
+    public PlacePageDTO(List<PlaceDTO> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<PlaceDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<PlaceDTO> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.placeservice.dto;
+
+import java.util.List;
+
+public class RackSnapshotDTO {
+    private long sequence;
+    private List<String> freeRackIds;
+
+    public RackSnapshotDTO() {
+    }
+
+    public RackSnapshotDTO(long sequence, List<String> freeRackIds) {
+        this.sequence = sequence;
+        this.freeRackIds = freeRackIds;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public List<String> getFreeRackIds() {
+        return freeRackIds;
+    }
+
+    public void setFreeRackIds(List<String> freeRackIds) {
+        this.freeRackIds = freeRackIds;
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.placeservice.dto;
+
+import java.time.LocalDateTime;
+
+public class RackStatusEventDTO {
+    private long sequence;
+    private String rackId;
+    private String oldStatus;
+    private String newStatus;
+    private String tenantId;
+    private LocalDateTime timestamp;
+
+    public RackStatusEventDTO() {
+    }
+
+    public RackStatusEventDTO(String rackId, String oldStatus, String newStatus, String tenantId) {
+        this.rackId = rackId;
+        this.oldStatus = oldStatus;
+        this.newStatus = newStatus;
+        this.tenantId = tenantId;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public String getRackId() {
+        return rackId;
+    }
+
+    public void setRackId(String rackId) {
+        this.rackId = rackId;
+    }
+
+    public String getOldStatus() {
+        return oldStatus;
+    }
+
+    public void setOldStatus(String oldStatus) {
+        this.oldStatus = oldStatus;
+    }
+
+    public String getNewStatus() {
+        return newStatus;
+    }
+
+    public void setNewStatus(String newStatus) {
+        this.newStatus = newStatus;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(String tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+}
@@ -4,7 +4,7 @@ import jakarta.persistence.*;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "places")
+@Table(name = "places", indexes = @Index(name = "idx_places_claim_key", columnList = "claim_key"))
 public class Place {
     @Id
     private String rackId;
@@ -28,6 +28,13 @@ public class Place {
     @Column(name = "tenant_id")
     private String tenantId;
 
+    // Key of the claim that occupied the rack, so the claim can be repeated or released by key
+    @Column(name = "claim_key")
+    private String claimKey;
+
+    @Version
+    private Long version;
+
     public Place() {
     }
 
@@ -127,6 +134,22 @@ public class Place {
         this.tenantId = tenantId;
     }
 
+    public String getClaimKey() {
+        return claimKey;
+    }
+
+    public void setClaimKey(String claimKey) {
+        this.claimKey = claimKey;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public enum RackType {
         STANDARD, REFRIGERATED, SECURE
     }
@@ -0,0 +1,27 @@
+package org.example.placeservice.repository;
+
+import org.example.placeservice.model.PlaceBooking;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PlaceBookingRepository extends JpaRepository<PlaceBooking, Long> {
+    List<PlaceBooking> findByRackIdInAndStartDateAndEndDate(Collection<String> rackIds,
+                                                            LocalDate startDate, LocalDate endDate);
+
+    @Query("SELECT DISTINCT b.rackId FROM PlaceBooking b " +
+           "WHERE b.rackId IN :rackIds AND b.startDate <= :to AND b.endDate >= :from")
+    List<String> findRackIdsBookedBetween(@Param("rackIds") Collection<String> rackIds,
+                                          @Param("from") LocalDate from,
+                                          @Param("to") LocalDate to);
+
+    @Query("SELECT DISTINCT b.rackId FROM PlaceBooking b WHERE b.rackId IN :rackIds AND b.endDate >= :date")
+    List<String> findRackIdsBookedFrom(@Param("rackIds") Collection<String> rackIds,
+                                       @Param("date") LocalDate date);
+}
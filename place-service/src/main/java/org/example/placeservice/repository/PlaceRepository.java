@@ -1,15 +1,99 @@
 package org.example.placeservice.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.example.placeservice.dto.PlaceDTO;
 import org.example.placeservice.model.Place;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface PlaceRepository extends JpaRepository<Place, String> {
+public interface PlaceRepository extends JpaRepository<Place, String>, PlaceRepositoryCustom {
+    String DTO_CONSTRUCTOR = "new org.example.placeservice.dto.PlaceDTO(" +
+            "p.rackId, p.sectionCode, p.number, p.type, p.status, p.pricePerDay, " +
+            "p.width, p.height, p.depth, p.tenantId)";
+    String DTO_PROJECTION = "SELECT " + DTO_CONSTRUCTOR + " FROM Place p ";
+    // Racks with a booking that has not ended cannot be held without an end date
+    String NOT_BOOKED_FROM = "NOT EXISTS (SELECT b FROM PlaceBooking b " +
+            "WHERE b.rackId = p.rackId AND b.endDate >= :date) ";
+
     List<Place> findByStatus(Place.RackStatus status);
     List<Place> findByTenantId(String tenantId);
     List<Place> findByStatusAndType(Place.RackStatus status, Place.RackType type);
-}
 
+    @Query(DTO_PROJECTION + "WHERE p.status = :status ORDER BY p.rackId")
+    List<PlaceDTO> findDTOsByStatus(@Param("status") Place.RackStatus status);
+
+    @Query(DTO_PROJECTION + "WHERE p.status = :status AND p.type = :type ORDER BY p.rackId")
+    List<PlaceDTO> findDTOsByStatusAndType(@Param("status") Place.RackStatus status,
+                                           @Param("type") Place.RackType type);
+
+    @Query(DTO_PROJECTION + "WHERE p.status = :status AND p.rackId > :rackId ORDER BY p.rackId")
+    List<PlaceDTO> findDTOsByStatusAfter(@Param("status") Place.RackStatus status,
+                                         @Param("rackId") String rackId, Pageable pageable);
+
+    @Query(DTO_PROJECTION + "WHERE p.tenantId = :tenantId ORDER BY p.rackId")
+    List<PlaceDTO> findDTOsByTenantId(@Param("tenantId") String tenantId);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(DTO_PROJECTION + "WHERE p.status = :status ORDER BY p.rackId")
+    Stream<PlaceDTO> streamDTOsByStatus(@Param("status") Place.RackStatus status);
+
+    // Each row is [PlaceDTO, claimKey]
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT " + DTO_CONSTRUCTOR + ", p.claimKey FROM Place p ORDER BY p.rackId")
+    Stream<Object[]> streamAllDTOsWithClaimKey();
+
+    @Query("SELECT p.rackId FROM Place p WHERE p.claimKey = :claimKey ORDER BY p.rackId")
+    List<String> findRackIdsByClaimKey(@Param("claimKey") String claimKey);
+
+    @Query("SELECT p.rackId FROM Place p WHERE p.claimKey IN :claimKeys ORDER BY p.rackId")
+    List<String> findRackIdsByClaimKeyIn(@Param("claimKeys") Collection<String> claimKeys);
+
+    // Each row is [PlaceDTO, version], read in one statement so status and version agree
+    @Query("SELECT " + DTO_CONSTRUCTOR + ", p.version FROM Place p ORDER BY p.rackId")
+    List<Object[]> findAllDTOsWithVersion();
+
+    @Query("SELECT p.rackId FROM Place p WHERE p.status = :status")
+    List<String> findRackIdsByStatus(@Param("status") Place.RackStatus status);
+
+    @Query("SELECT p.sectionCode, p.type, p.status, COUNT(p) FROM Place p " +
+           "GROUP BY p.sectionCode, p.type, p.status")
+    List<Object[]> countBySectionTypeAndStatus();
+
+    @Query("SELECT p.rackId FROM Place p WHERE p.rackId IN :rackIds")
+    List<String> findExistingRackIds(@Param("rackIds") Collection<String> rackIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Place p WHERE p.rackId IN :rackIds")
+    List<Place> findAllByIdForUpdate(@Param("rackIds") List<String> rackIds);
+
+    @Query("SELECT p FROM Place p WHERE p.status = :status AND p.type = :type AND " + NOT_BOOKED_FROM +
+           "ORDER BY p.rackId")
+    List<Place> findClaimable(@Param("status") Place.RackStatus status,
+                              @Param("type") Place.RackType type,
+                              @Param("date") LocalDate date,
+                              Pageable pageable);
+
+    /**
+     * Bump the version of racks that still have the expected status, which locks their rows
+     * until commit and fails concurrent writers that read the previous version.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Place p SET p.version = p.version + 1 WHERE p.rackId IN :rackIds AND p.status = :expectedStatus")
+    int touchWhereStatus(@Param("rackIds") List<String> rackIds,
+                         @Param("expectedStatus") Place.RackStatus expectedStatus);
+}
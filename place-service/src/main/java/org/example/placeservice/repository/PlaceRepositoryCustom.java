@@ -0,0 +1,18 @@
+package org.example.placeservice.repository;
+
+import org.example.placeservice.model.Place;
+
+import java.util.List;
+import java.util.Map;
+
+public interface PlaceRepositoryCustom {
+
+    /**
+     * Set the status, tenant and claim key of every rack whose row still has the expected
+     * version, incrementing the version. Runs as one JDBC batch.
+     *
+     * @return the racks whose version no longer matched and were left unchanged
+     */
+    List<String> updateStatusWhereVersion(Map<String, Long> expectedVersions,
+                                          Place.RackStatus newStatus, String tenantId, String claimKey);
+}
@@ -0,0 +1,63 @@
+package org.example.placeservice.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.example.placeservice.model.Place;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Version-checked status updates. Each rack needs its own version in the WHERE clause,
+ * which a single JPQL bulk update cannot express, so the updates are sent as one
+ * JDBC batch on the transaction's connection. Rows are updated in rackId order so that
+ * concurrent batches over overlapping racks take their row locks in the same order.
+ */
+public class PlaceRepositoryImpl implements PlaceRepositoryCustom {
+
+    private static final String UPDATE_SQL = "UPDATE places SET status = ?, tenant_id = ?, claim_key = ?, version = version + 1 "
+            + "WHERE rack_id = ? AND version = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public PlaceRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<String> updateStatusWhereVersion(Map<String, Long> expectedVersions,
+                                                 Place.RackStatus newStatus, String tenantId, String claimKey) {
+        List<Map.Entry<String, Long>> racks = new ArrayList<>(expectedVersions.entrySet());
+        if (racks.isEmpty()) {
+            return new ArrayList<>();
+        }
+        racks.sort(Map.Entry.comparingByKey());
+        entityManager.flush();
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, racks, racks.size(), (statement, rack) -> {
+            statement.setString(1, newStatus.name());
+            statement.setString(2, tenantId);
+            statement.setString(3, claimKey);
+            statement.setString(4, rack.getKey());
+            statement.setObject(5, rack.getValue());
+        });
+        // Loaded entities no longer reflect the rows
+        entityManager.clear();
+
+        List<String> unchanged = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count == 0) {
+                    unchanged.add(racks.get(index).getKey());
+                }
+                index++;
+            }
+        }
+        return unchanged;
+    }
+}
@@ -0,0 +1,244 @@
+package org.example.placeservice.service;
+
+import org.example.placeservice.dto.PlaceDTO;
+import org.example.placeservice.model.Place;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory index of free racks, grouped by rack type and ordered by rackId.
+ * Serves availability reads without touching the database; PlaceService keeps it
+ * in sync after every committed status change.
+ * <p>
+ * A second view orders the same racks by volume, which answers best-fit queries:
+ * scanning upwards from the requested minimum volume, the first racks that cover
+ * every requested dimension are the smallest sufficient ones.
+ * <p>
+ * Status changes carry the row version they committed. Commit callbacks of two
+ * transactions on the same rack may run in either order, so a change older than the
+ * last one applied to the rack is ignored instead of overwriting it. The startup
+ * rebuild follows the same rule, so callbacks that arrive while it runs are kept.
+ */
+@Component
+public class FreePlaceIndex {
+
+    private final ConcurrentSkipListMap<String, PlaceDTO> freePlaces = new ConcurrentSkipListMap<>();
+    private final Map<Place.RackType, ConcurrentSkipListMap<String, PlaceDTO>> freePlacesByType =
+            new EnumMap<>(Place.RackType.class);
+
+    private final ConcurrentSkipListMap<VolumeKey, PlaceDTO> freePlacesByVolume = new ConcurrentSkipListMap<>();
+    private final Map<Place.RackType, ConcurrentSkipListMap<VolumeKey, PlaceDTO>> freePlacesByTypeAndVolume =
+            new EnumMap<>(Place.RackType.class);
+
+    // Last applied row version per rack
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+
+    public FreePlaceIndex() {
+        for (Place.RackType type : Place.RackType.values()) {
+            freePlacesByType.put(type, new ConcurrentSkipListMap<>());
+            freePlacesByTypeAndVolume.put(type, new ConcurrentSkipListMap<>());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Merge a startup read of every rack; each row is [PlaceDTO, version]. Commit callbacks
+     * may already have applied changes newer than the read, so a row only replaces the
+     * entry of its rack if its version is newer than the last change applied there.
+     */
+    public synchronized void rebuild(List<Object[]> rows) {
+        ready = false;
+        for (Object[] row : rows) {
+            PlaceDTO place = (PlaceDTO) row[0];
+            long version = row[1] != null ? (Long) row[1] : 0;
+            if (!advance(place.getRackId(), version)) {
+                continue;
+            }
+            if (Place.RackStatus.FREE.name().equals(place.getStatus())) {
+                add(place);
+            } else {
+                remove(place.getRackId());
+            }
+        }
+        ready = true;
+    }
+
+    public int size() {
+        return freePlaces.size();
+    }
+
+    /**
+     * Returns true if the rack was not indexed as free before.
+     */
+    public boolean add(PlaceDTO place) {
+        Place.RackType type = Place.RackType.valueOf(place.getType());
+        VolumeKey volumeKey = VolumeKey.of(place);
+        PlaceDTO previous = freePlaces.put(place.getRackId(), place);
+        freePlacesByType.get(type).put(place.getRackId(), place);
+        freePlacesByVolume.put(volumeKey, place);
+        freePlacesByTypeAndVolume.get(type).put(volumeKey, place);
+        return previous == null;
+    }
+
+    /**
+     * Index the rack as freed by the change that committed {@code version}.
+     * Returns true if the rack was not indexed as free before; false as well if a newer
+     * change of the rack has already been applied, in which case nothing is changed.
+     */
+    public synchronized boolean add(PlaceDTO place, long version) {
+        return advance(place.getRackId(), version) && add(place);
+    }
+
+    /**
+     * Unindex the rack as occupied by the change that committed {@code version}.
+     * Returns the removed rack, or null if it was not indexed as free or a newer change
+     * of the rack has already been applied.
+     */
+    public synchronized PlaceDTO remove(String rackId, long version) {
+        return advance(rackId, version) ? remove(rackId) : null;
+    }
+
+    /**
+     * True if the change is newer than the last one applied to the rack.
+     */
+    public boolean isCurrent(String rackId, long version) {
+        Long applied = versions.get(rackId);
+        return applied == null || applied < version;
+    }
+
+    private boolean advance(String rackId, long version) {
+        if (!isCurrent(rackId, version)) {
+            return false;
+        }
+        versions.put(rackId, version);
+        return true;
+    }
+
+    /**
+     * Returns the removed rack, or null if it was not indexed as free.
+     */
+    public PlaceDTO remove(String rackId) {
+        PlaceDTO removed = freePlaces.remove(rackId);
+        if (removed != null) {
+            Place.RackType type = Place.RackType.valueOf(removed.getType());
+            VolumeKey volumeKey = VolumeKey.of(removed);
+            freePlacesByType.get(type).remove(rackId);
+            freePlacesByVolume.remove(volumeKey);
+            freePlacesByTypeAndVolume.get(type).remove(volumeKey);
+        }
+        return removed;
+    }
+
+    /**
+     * True if this exact DTO instance is the one currently indexed for its rack.
+     */
+    public boolean isIndexed(PlaceDTO place) {
+        return freePlaces.get(place.getRackId()) == place;
+    }
+
+    public List<PlaceDTO> getAll() {
+        return new ArrayList<>(freePlaces.values());
+    }
+
+    public List<PlaceDTO> getByType(Place.RackType type) {
+        return new ArrayList<>(freePlacesByType.get(type).values());
+    }
+
+    /**
+     * Up to {@code size} free racks with a rackId strictly after {@code afterRackId}.
+     */
+    public List<PlaceDTO> getPage(String afterRackId, int size) {
+        return freePlaces.tailMap(afterRackId, false).values().stream()
+                .limit(size)
+                .collect(Collectors.toList());
+    }
+
+    public List<String> getRackIds() {
+        return new ArrayList<>(freePlaces.keySet());
+    }
+
+    /**
+     * Up to {@code limit} free racks at least as large as the requested dimensions,
+     * smallest volume first. A null type searches every rack type.
+     */
+    public List<PlaceDTO> getBestFit(int minWidth, int minHeight, int minDepth, Place.RackType type, int limit) {
+        ConcurrentSkipListMap<VolumeKey, PlaceDTO> byVolume =
+                type != null ? freePlacesByTypeAndVolume.get(type) : freePlacesByVolume;
+        long minVolume = (long) minWidth * minHeight * minDepth;
+
+        return byVolume.tailMap(new VolumeKey(minVolume, ""), true).values().stream()
+                .filter(place -> fits(place, minWidth, minHeight, minDepth))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    static boolean fits(PlaceDTO place, int minWidth, int minHeight, int minDepth) {
+        PlaceDTO.DimensionsDTO dimensions = place.getDimensions();
+        return dimensions != null
+                && valueOf(dimensions.getWidth()) >= minWidth
+                && valueOf(dimensions.getHeight()) >= minHeight
+                && valueOf(dimensions.getDepth()) >= minDepth;
+    }
+
+    static long volumeOf(PlaceDTO place) {
+        PlaceDTO.DimensionsDTO dimensions = place.getDimensions();
+        if (dimensions == null) {
+            return 0;
+        }
+        return (long) valueOf(dimensions.getWidth()) * valueOf(dimensions.getHeight())
+                * valueOf(dimensions.getDepth());
+    }
+
+    private static int valueOf(Integer dimension) {
+        return dimension != null ? dimension : 0;
+    }
+
+    /**
+     * Orders racks by volume, then by rackId to keep keys unique.
+     */
+    private static final class VolumeKey implements Comparable<VolumeKey> {
+        private final long volume;
+        private final String rackId;
+
+        private VolumeKey(long volume, String rackId) {
+            this.volume = volume;
+            this.rackId = rackId;
+        }
+
+        private static VolumeKey of(PlaceDTO place) {
+            return new VolumeKey(volumeOf(place), place.getRackId());
+        }
+
+        @Override
+        public int compareTo(VolumeKey other) {
+            int byVolume = Long.compare(volume, other.volume);
+            return byVolume != 0 ? byVolume : rackId.compareTo(other.rackId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof VolumeKey)) {
+                return false;
+            }
+            VolumeKey other = (VolumeKey) o;
+            return volume == other.volume && rackId.equals(other.rackId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(volume) * 31 + rackId.hashCode();
+        }
+    }
+}
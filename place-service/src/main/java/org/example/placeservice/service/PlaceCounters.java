@@ -0,0 +1,128 @@
+package org.example.placeservice.service;
+
+import org.example.placeservice.config.PlacePartition;
+import org.example.placeservice.dto.PlaceCountDTO;
+import org.example.placeservice.dto.PlaceDTO;
+import org.example.placeservice.model.Place;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Free/occupied rack counters kept per rack type, per section and per section and type,
+ * so availability checks are answered without listing racks. PlaceService adjusts them
+ * together with the free-rack index after every committed status change.
+ */
+@Component
+public class PlaceCounters {
+
+    private final Counter total = new Counter();
+    private final Map<Place.RackType, Counter> byType = new EnumMap<>(Place.RackType.class);
+    private final Map<String, Map<Place.RackType, Counter>> bySectionAndType = new ConcurrentHashMap<>();
+    private final Map<String, Counter> bySection = new ConcurrentHashMap<>();
+
+    public PlaceCounters() {
+        for (Place.RackType type : Place.RackType.values()) {
+            byType.put(type, new Counter());
+        }
+    }
+
+    /**
+     * Reset the counters from rows of (sectionCode, type, status, count).
+     */
+    public synchronized void rebuild(List<Object[]> rows) {
+        total.reset();
+        byType.values().forEach(Counter::reset);
+        bySection.clear();
+        bySectionAndType.clear();
+        for (Object[] row : rows) {
+            String section = sectionOf((String) row[0]);
+            Place.RackType type = (Place.RackType) row[1];
+            Place.RackStatus status = (Place.RackStatus) row[2];
+            long count = ((Number) row[3]).longValue();
+            forEach(section, type, counter -> counter.add(status, count));
+        }
+    }
+
+    /**
+     * A new rack was stored with the given status.
+     */
+    public void added(PlaceDTO place) {
+        Place.RackStatus status = Place.RackStatus.valueOf(place.getStatus());
+        forEach(sectionOf(place.getSectionCode()), Place.RackType.valueOf(place.getType()),
+                counter -> counter.add(status, 1));
+    }
+
+    /**
+     * A free rack became occupied.
+     */
+    public void occupied(PlaceDTO place) {
+        forEach(sectionOf(place.getSectionCode()), Place.RackType.valueOf(place.getType()), Counter::occupy);
+    }
+
+    /**
+     * An occupied rack became free.
+     */
+    public void released(PlaceDTO place) {
+        forEach(sectionOf(place.getSectionCode()), Place.RackType.valueOf(place.getType()), Counter::release);
+    }
+
+    /**
+     * Counts for the given type and/or section; null means any.
+     */
+    public PlaceCountDTO get(Place.RackType type, String sectionCode) {
+        Counter counter;
+        if (sectionCode == null) {
+            counter = type != null ? byType.get(type) : total;
+        } else if (type == null) {
+            counter = bySection.get(sectionCode);
+        } else {
+            Map<Place.RackType, Counter> sectionCounters = bySectionAndType.get(sectionCode);
+            counter = sectionCounters != null ? sectionCounters.get(type) : null;
+        }
+        return new PlaceCountDTO(type != null ? type.name() : null, sectionCode,
+                counter != null ? counter.free.get() : 0, counter != null ? counter.occupied.get() : 0);
+    }
+
+    private void forEach(String section, Place.RackType type, Consumer<Counter> update) {
+        update.accept(total);
+        update.accept(byType.get(type));
+        update.accept(bySection.computeIfAbsent(section, key -> new Counter()));
+        update.accept(bySectionAndType
+                .computeIfAbsent(section, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(type, key -> new Counter()));
+    }
+
+    private static String sectionOf(String sectionCode) {
+        return sectionCode != null ? sectionCode : PlacePartition.UNASSIGNED_SECTION;
+    }
+
+    private static final class Counter {
+        private final AtomicLong free = new AtomicLong();
+        private final AtomicLong occupied = new AtomicLong();
+
+        private void add(Place.RackStatus status, long count) {
+            (status == Place.RackStatus.FREE ? free : occupied).addAndGet(count);
+        }
+
+        private void occupy() {
+            free.decrementAndGet();
+            occupied.incrementAndGet();
+        }
+
+        private void release() {
+            occupied.decrementAndGet();
+            free.incrementAndGet();
+        }
+
+        private void reset() {
+            free.set(0);
+            occupied.set(0);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package org.example.placeservice.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.placeservice.dto.RackSnapshotDTO;
+import org.example.placeservice.dto.RackStatusEventDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Publishes rack status changes as server-sent events.
+ * <p>
+ * Every change gets a monotonic sequence number and is kept in a bounded ring buffer,
+ * so a client that reconnects with Last-Event-ID receives only what it missed. Event IDs
+ * are "epoch-sequence", the epoch being this publisher's start time, so an ID issued
+ * before a restart is never mistaken for one of the new sequence. If the requested event
+ * is from another epoch or has already been overwritten the client gets a "reset" event
+ * and should wait for the next "snapshot" event, which carries the full set of free
+ * rackIds as of a given sequence number.
+ * <p>
+ * Index updates and sequence assignment happen under one lock, so a snapshot always
+ * reflects exactly the changes up to its sequence. Events are sent from a single
+ * dispatcher thread to keep per-client ordering without blocking request threads.
+ */
+@Component
+public class PlaceEventPublisher {
+
+    public static final String STATUS_EVENT = "rack-status";
+    public static final String SNAPSHOT_EVENT = "snapshot";
+    public static final String RESET_EVENT = "reset";
+
+    private static final Logger logger = LoggerFactory.getLogger(PlaceEventPublisher.class);
+
+    private final FreePlaceIndex freePlaceIndex;
+    private final RackStatusEventDTO[] ring;
+    private final long emitterTimeoutMs;
+    private final List<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "place-event-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String epoch = Long.toString(System.currentTimeMillis());
+    private long sequence;
+
+    public PlaceEventPublisher(FreePlaceIndex freePlaceIndex,
+                               @Value("${place.events.buffer-size:10000}") int bufferSize,
+                               @Value("${place.events.emitter-timeout-ms:1800000}") long emitterTimeoutMs) {
+        this.freePlaceIndex = freePlaceIndex;
+        this.ring = new RackStatusEventDTO[Math.max(1, bufferSize)];
+        this.emitterTimeoutMs = emitterTimeoutMs;
+    }
+
+    /**
+     * Apply the index update and publish the changes it reports as applied, atomically.
+     */
+    public synchronized void publish(Supplier<List<RackStatusEventDTO>> indexUpdate) {
+        List<RackStatusEventDTO> changes = indexUpdate.get();
+        LocalDateTime now = LocalDateTime.now();
+        for (RackStatusEventDTO change : changes) {
+            change.setSequence(++sequence);
+            change.setTimestamp(now);
+            ring[(int) (sequence % ring.length)] = change;
+        }
+        if (!changes.isEmpty() && !subscribers.isEmpty()) {
+            List<RackStatusEventDTO> batch = new ArrayList<>(changes);
+            dispatcher.execute(() -> subscribers.forEach(emitter -> sendAll(emitter, batch)));
+        }
+    }
+
+    /**
+     * Register a client. With {@code lastEventId} the buffered events after it are replayed first.
+     */
+    public synchronized SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(error -> subscribers.remove(emitter));
+
+        if (lastEventId != null) {
+            long last = parseSequence(lastEventId);
+            long oldestBuffered = Math.max(1, sequence - ring.length + 1);
+            if (last < 0 || last > sequence || last + 1 < oldestBuffered) {
+                long current = sequence;
+                String id = eventId(current);
+                dispatcher.execute(() -> send(emitter, SseEmitter.event()
+                        .name(RESET_EVENT)
+                        .id(id)
+                        .data(current)));
+            } else if (last < sequence) {
+                List<RackStatusEventDTO> missed = new ArrayList<>();
+                for (long seq = last + 1; seq <= sequence; seq++) {
+                    missed.add(ring[(int) (seq % ring.length)]);
+                }
+                dispatcher.execute(() -> sendAll(emitter, missed));
+            }
+        }
+        subscribers.add(emitter);
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${place.events.snapshot-interval-ms:30000}")
+    public void publishSnapshot() {
+        if (subscribers.isEmpty() || !freePlaceIndex.isReady()) {
+            return;
+        }
+        // Enqueued under the lock so it cannot overtake events published after its sequence
+        synchronized (this) {
+            RackSnapshotDTO snapshot = new RackSnapshotDTO(sequence, freePlaceIndex.getRackIds());
+            String id = eventId(sequence);
+            dispatcher.execute(() -> subscribers.forEach(emitter -> send(emitter, SseEmitter.event()
+                    .name(SNAPSHOT_EVENT)
+                    .id(id)
+                    .data(snapshot))));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        subscribers.forEach(SseEmitter::complete);
+    }
+
+    private void sendAll(SseEmitter emitter, List<RackStatusEventDTO> events) {
+        for (RackStatusEventDTO event : events) {
+            if (!send(emitter, SseEmitter.event()
+                    .name(STATUS_EVENT)
+                    .id(eventId(event.getSequence()))
+                    .data(event))) {
+                return;
+            }
+        }
+    }
+
+    private String eventId(long seq) {
+        return epoch + "-" + seq;
+    }
+
+    /**
+     * The sequence number of an event ID of this epoch, or -1 for an ID from another epoch
+     * or one that cannot be read.
+     */
+    private long parseSequence(String eventId) {
+        String prefix = epoch + "-";
+        if (!eventId.startsWith(prefix)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private boolean send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Dropping event subscriber: {}", e.getMessage());
+            subscribers.remove(emitter);
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package org.example.placeservice.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.example.placeservice.config.PlacePartition;
+import org.example.placeservice.dto.PlaceImportProgressDTO;
+import org.example.placeservice.model.Place;
+import org.example.placeservice.repository.PlaceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Bulk rack import. The request body is read element by element with the Jackson
+ * streaming parser and written in fixed-size chunks, each in its own transaction,
+ * so memory use does not depend on the size of the inventory. Inserts go through
+ * Hibernate JDBC batching (see hibernate.jdbc.batch_size).
+ */
+@Service
+public class PlaceImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlaceImportService.class);
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int MAX_SECTION_CODE_LENGTH = 5;
+    private static final BigDecimal MAX_PRICE_PER_DAY = new BigDecimal("1000");
+
+    private final ObjectMapper objectMapper;
+    private final PlaceRepository placeRepository;
+    private final PlaceService placeService;
+    private final PlacePartition placePartition;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public PlaceImportService(ObjectMapper objectMapper,
+                              PlaceRepository placeRepository,
+                              PlaceService placeService,
+                              PlacePartition placePartition,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${place.import.chunk-size:5000}") int chunkSize) {
+        this.objectMapper = objectMapper;
+        this.placeRepository = placeRepository;
+        this.placeService = placeService;
+        this.placePartition = placePartition;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Import racks from either a bare JSON array or a document with a "racks" array
+     * (the shape of json/warehouse_data.json). Invalid elements, racks of sections owned by
+     * another partition and already existing rackIds are skipped and reported; the listener
+     * receives a progress update after every committed chunk and a final summary.
+     */
+    public void importPlaces(InputStream body, Consumer<PlaceImportProgressDTO> progressListener) throws IOException {
+        ImportState state = new ImportState();
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            moveToRackArray(parser);
+
+            Map<String, Place> chunk = new LinkedHashMap<>();
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                JsonNode node = parser.readValueAsTree();
+                state.processed++;
+
+                Place place = toPlace(node, state);
+                if (place == null) {
+                    continue;
+                }
+                if (!placePartition.owns(place.getSectionCode()) || chunk.containsKey(place.getRackId())) {
+                    state.skipped++;
+                    continue;
+                }
+                chunk.put(place.getRackId(), place);
+
+                if (chunk.size() >= chunkSize) {
+                    writeChunk(chunk, state);
+                    progressListener.accept(state.toProgress(false));
+                }
+            }
+            writeChunk(chunk, state);
+        }
+
+        PlaceImportProgressDTO summary = state.toProgress(true);
+        logger.info("Imported {} racks ({} processed, {} skipped, {} failed) in {} ms",
+                summary.getImported(), summary.getProcessed(), summary.getSkipped(),
+                summary.getFailed(), summary.getElapsedMs());
+        progressListener.accept(summary);
+    }
+
+    private void moveToRackArray(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                token = parser.nextToken();
+                if ("racks".equals(field)) {
+                    break;
+                }
+                parser.skipChildren();
+                token = null;
+            }
+        }
+        if (token != JsonToken.START_ARRAY) {
+            throw new RuntimeException("Expected a JSON array of racks or an object with a \"racks\" array");
+        }
+    }
+
+    private void writeChunk(Map<String, Place> chunk, ImportState state) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        int attempted = chunk.size();
+        try {
+            List<Place> inserted = transactionTemplate.execute(status -> {
+                Set<String> existing = new HashSet<>(placeRepository.findExistingRackIds(chunk.keySet()));
+                List<Place> persisted = new ArrayList<>();
+                for (Place place : chunk.values()) {
+                    if (existing.contains(place.getRackId())) {
+                        continue;
+                    }
+                    entityManager.persist(place);
+                    persisted.add(place);
+                }
+                entityManager.flush();
+                entityManager.clear();
+                return persisted;
+            });
+            placeService.addToFreePlaceIndex(inserted);
+            state.imported += inserted.size();
+            state.skipped += attempted - inserted.size();
+        } catch (RuntimeException e) {
+            state.failed += attempted;
+            state.error("Chunk ending at rack " + lastKey(chunk) + " failed: " + e.getMessage());
+            logger.error("Import chunk failed: {}", e.getMessage());
+        } finally {
+            chunk.clear();
+        }
+    }
+
+    private Place toPlace(JsonNode node, ImportState state) {
+        String rackId = text(node, "rackId");
+        String label = rackId != null ? rackId : "#" + state.processed;
+        try {
+            if (rackId == null || rackId.isBlank()) {
+                throw new IllegalArgumentException("rackId is required");
+            }
+            String sectionCode = text(node, "sectionCode");
+            if (sectionCode != null && sectionCode.length() > MAX_SECTION_CODE_LENGTH) {
+                throw new IllegalArgumentException("sectionCode is longer than " + MAX_SECTION_CODE_LENGTH);
+            }
+            int number = positiveInt(node, "number");
+            Place.RackType type = Place.RackType.valueOf(required(node, "type"));
+            Place.RackStatus status = Place.RackStatus.valueOf(required(node, "status"));
+
+            JsonNode price = node.get("pricePerDay");
+            if (price == null || !price.isNumber()) {
+                throw new IllegalArgumentException("pricePerDay must be a number");
+            }
+            BigDecimal pricePerDay = price.decimalValue();
+            if (pricePerDay.signum() <= 0 || pricePerDay.compareTo(MAX_PRICE_PER_DAY) >= 0) {
+                throw new IllegalArgumentException("pricePerDay must be between 0 and 1000 (exclusive)");
+            }
+
+            JsonNode dimensions = node.get("dimensions");
+            if (dimensions == null || !dimensions.isObject()) {
+                throw new IllegalArgumentException("dimensions are required");
+            }
+            String tenantId = text(node, "tenantId");
+
+            return new Place(rackId, sectionCode, number, type, status, pricePerDay,
+                    positiveInt(dimensions, "width"), positiveInt(dimensions, "height"),
+                    positiveInt(dimensions, "depth"), status == Place.RackStatus.OCCUPIED ? tenantId : null);
+        } catch (IllegalArgumentException e) {
+            state.failed++;
+            state.error("Rack " + label + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static String required(JsonNode node, String field) {
+        String value = text(node, field);
+        if (value == null) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+        return value;
+    }
+
+    private static int positiveInt(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value == null || !value.canConvertToInt() || !value.isIntegralNumber() || value.intValue() < 1) {
+            throw new IllegalArgumentException(field + " must be a positive integer");
+        }
+        return value.intValue();
+    }
+
+    private static String lastKey(Map<String, Place> chunk) {
+        String last = null;
+        for (String key : chunk.keySet()) {
+            last = key;
+        }
+        return last;
+    }
+
+    private static final class ImportState {
+        private final long startedAt = System.currentTimeMillis();
+        private final List<String> errors = new ArrayList<>();
+        private long processed;
+        private long imported;
+        private long skipped;
+        private long failed;
+
+        private void error(String message) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(message);
+            }
+        }
+
+        private PlaceImportProgressDTO toProgress(boolean done) {
+            return new PlaceImportProgressDTO(processed, imported, skipped, failed,
+                    System.currentTimeMillis() - startedAt, done, done ? errors : null);
+        }
+    }
+}
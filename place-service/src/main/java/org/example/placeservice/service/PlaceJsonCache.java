@@ -0,0 +1,87 @@
+package org.example.placeservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.placeservice.dto.PlaceDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serialized JSON of free racks, so list responses are written by concatenating
+ * cached bytes instead of running every rack through Jackson again.
+ * <p>
+ * Only DTOs held by the free-rack index are cached. Each entry remembers the DTO
+ * instance it was produced from; the index replaces that instance on every status
+ * change, so a stale entry is never served even if it is written after the change.
+ * PlaceService also invalidates entries of changed racks to release their memory.
+ */
+@Component
+public class PlaceJsonCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper;
+    private final FreePlaceIndex freePlaceIndex;
+    private final boolean enabled;
+
+    public PlaceJsonCache(ObjectMapper objectMapper,
+                          FreePlaceIndex freePlaceIndex,
+                          @Value("${place.json-cache.enabled:true}") boolean enabled) {
+        this.objectMapper = objectMapper;
+        this.freePlaceIndex = freePlaceIndex;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Write the racks as a JSON array.
+     */
+    public void writeArray(List<PlaceDTO> places, OutputStream out) throws IOException {
+        if (!enabled) {
+            objectMapper.writeValue(out, places);
+            return;
+        }
+        out.write('[');
+        for (int i = 0; i < places.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(toJson(places.get(i)));
+        }
+        out.write(']');
+        out.flush();
+    }
+
+    public void invalidate(String rackId) {
+        entries.remove(rackId);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private byte[] toJson(PlaceDTO place) throws IOException {
+        Entry entry = entries.get(place.getRackId());
+        if (entry != null && entry.source == place) {
+            return entry.json;
+        }
+        byte[] json = objectMapper.writeValueAsBytes(place);
+        if (freePlaceIndex.isIndexed(place)) {
+            entries.put(place.getRackId(), new Entry(place, json));
+        }
+        return json;
+    }
+
+    private static final class Entry {
+        private final PlaceDTO source;
+        private final byte[] json;
+
+        private Entry(PlaceDTO source, byte[] json) {
+            this.source = source;
+            this.json = json;
+        }
+    }
+}
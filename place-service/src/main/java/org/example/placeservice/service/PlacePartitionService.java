@@ -0,0 +1,360 @@
+package org.example.placeservice.service;
+
+import org.example.placeservice.client.PlacePartitionClient;
+import org.example.placeservice.config.PlacePartition;
+import org.example.placeservice.dto.ClaimPlacesRequestDTO;
+import org.example.placeservice.dto.ClaimPlacesResultDTO;
+import org.example.placeservice.dto.GivePlacesRequestDTO;
+import org.example.placeservice.dto.PlaceCountDTO;
+import org.example.placeservice.dto.PlaceDTO;
+import org.example.placeservice.model.Place;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Serves free-place listings and counts across all section partitions: the local
+ * result is merged with the results of every other partition, ordered by rackId.
+ * <p>
+ * Rack changes are routed to the partitions that store the racks, so callers such as
+ * order-service do not need to know the section layout. A claim is filled from the
+ * local partition first and then from the others; a claim or give that cannot be
+ * completed releases the racks it already took on other partitions. Claims are tracked
+ * by claim key, so a peer claim with an unknown outcome can still be released.
+ */
+@Service
+public class PlacePartitionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlacePartitionService.class);
+
+    @Autowired
+    private PlaceService placeService;
+
+    @Autowired
+    private PlacePartition placePartition;
+
+    @Autowired
+    private PlacePartitionClient placePartitionClient;
+
+    public List<PlaceDTO> getAllFreePlaces(boolean localOnly) {
+        List<PlaceDTO> places = placeService.getAllFreePlaces();
+        if (localOnly || !placePartition.isPartitioned()) {
+            return places;
+        }
+        return merge(places, placePartitionClient.getFromPeers("/api/places/free"));
+    }
+
+    public List<PlaceDTO> getFreePlacesByType(String type, boolean localOnly) {
+        List<PlaceDTO> places = placeService.getFreePlacesByType(type);
+        if (localOnly || !placePartition.isPartitioned()) {
+            return places;
+        }
+        return merge(places, placePartitionClient.getFromPeers("/api/places/free/type/" + type));
+    }
+
+    public PlaceCountDTO countPlaces(String type, String sectionCode, boolean localOnly) {
+        PlaceCountDTO count = placeService.countPlaces(type, sectionCode);
+        if (localOnly || !placePartition.isPartitioned()) {
+            return count;
+        }
+        UriComponentsBuilder path = UriComponentsBuilder.fromPath("/api/places/free/count");
+        if (type != null) {
+            path.queryParam("type", type);
+        }
+        if (sectionCode != null) {
+            path.queryParam("section", sectionCode);
+        }
+        for (PlaceCountDTO remote : placePartitionClient.getCountsFromPeers(path.toUriString())) {
+            count.setFree(count.getFree() + remote.getFree());
+            count.setOccupied(count.getOccupied() + remote.getOccupied());
+        }
+        return count;
+    }
+
+    /**
+     * Claim {@code count} racks of a type, taking them from as many partitions as needed.
+     * <p>
+     * Every partition records the claim key on the racks it hands out (a generated one if the
+     * caller sent none). A peer whose answer is lost - a read timeout after it committed, say -
+     * is told to release the key, and a claim that cannot be completed releases the key on
+     * every partition, so racks are never left occupied without anyone knowing them. Repeating
+     * a claim with the caller's key counts the racks already held under it on any partition.
+     */
+    public List<String> claimPlaces(ClaimPlacesRequestDTO request, boolean localOnly) {
+        if (localOnly || !placePartition.isPartitioned()) {
+            return placeService.claimPlaces(request);
+        }
+        if (request.getCount() == null || request.getCount() <= 0) {
+            throw new RuntimeException("Rack count must be positive");
+        }
+        String type = Place.RackType.valueOf(request.getType()).name();
+        int count = request.getCount();
+        String claimKey = request.getClaimKey() != null ? request.getClaimKey() : "claim-" + UUID.randomUUID();
+
+        List<String> claimedLocally = placeService.findClaimedRackIds(claimKey);
+        Map<ServiceInstance, List<String>> claimedRemotely = request.getClaimKey() != null
+                ? placePartitionClient.findClaimed(claimKey)
+                : new LinkedHashMap<>();
+        if (total(claimedLocally, claimedRemotely) >= count) {
+            return flatten(claimedLocally, claimedRemotely);
+        }
+
+        try {
+            long localFree = placeService.countPlaces(type, null).getFree();
+            int wanted = (int) Math.min(count - total(claimedLocally, claimedRemotely), localFree);
+            if (wanted > 0) {
+                try {
+                    claimedLocally = placeService.claimPlaces(new ClaimPlacesRequestDTO(type,
+                            claimedLocally.size() + wanted, request.getUserId(), claimKey));
+                } catch (RuntimeException e) {
+                    logger.debug("Local partition could not claim {} {} racks: {}", wanted, type, e.getMessage());
+                }
+            }
+
+            String countPath = UriComponentsBuilder.fromPath("/api/places/free/count")
+                    .queryParam("type", type).toUriString();
+            Map<ServiceInstance, PlaceCountDTO> peerCounts = total(claimedLocally, claimedRemotely) < count
+                    ? placePartitionClient.getCountsByPeer(countPath)
+                    : Map.of();
+            for (Map.Entry<ServiceInstance, PlaceCountDTO> peer : peerCounts.entrySet()) {
+                int missing = count - total(claimedLocally, claimedRemotely);
+                int peerWanted = (int) Math.min(missing, peer.getValue().getFree());
+                if (peerWanted <= 0) {
+                    continue;
+                }
+                int held = claimedRemotely.getOrDefault(peer.getKey(), List.of()).size();
+                try {
+                    List<String> placeIds = placePartitionClient.post(peer.getKey(), "/api/places/claim",
+                            new ClaimPlacesRequestDTO(type, held + peerWanted, request.getUserId(), claimKey),
+                            new ParameterizedTypeReference<List<String>>() {});
+                    if (placeIds != null) {
+                        claimedRemotely.put(peer.getKey(), placeIds);
+                    }
+                } catch (RuntimeException e) {
+                    // The peer may have committed before its answer was lost
+                    logger.warn("Partition {} could not claim {} {} racks, releasing claim {} there: {}",
+                            peer.getKey().getInstanceId(), peerWanted, type, claimKey, e.getMessage());
+                    claimedRemotely.remove(peer.getKey());
+                    releaseClaimOn(peer.getKey(), claimKey);
+                }
+            }
+
+            if (total(claimedLocally, claimedRemotely) < count) {
+                throw new RuntimeException("Not enough free places available. Required: " +
+                        count + ", Available: " + total(claimedLocally, claimedRemotely));
+            }
+            return flatten(claimedLocally, claimedRemotely);
+        } catch (RuntimeException e) {
+            try {
+                releaseClaim(claimKey, false);
+            } catch (RuntimeException releaseError) {
+                logger.error("Failed to release claim {}: {}", claimKey, releaseError.getMessage());
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Racks held under the claim key, on every partition unless {@code localOnly}.
+     */
+    public List<String> findClaimedRackIds(String claimKey, boolean localOnly) {
+        List<String> local = placeService.findClaimedRackIds(claimKey);
+        if (localOnly || !placePartition.isPartitioned()) {
+            return local;
+        }
+        return flatten(local, placePartitionClient.findClaimed(claimKey));
+    }
+
+    /**
+     * Free the racks held under the claim key, on every partition unless {@code localOnly}.
+     * Returns the freed racks; a partition that cannot be reached is logged and skipped.
+     */
+    public List<String> releaseClaim(String claimKey, boolean localOnly) {
+        List<String> local = placeService.releaseClaim(claimKey);
+        if (localOnly || !placePartition.isPartitioned()) {
+            return local;
+        }
+        return flatten(local, placePartitionClient.releaseClaimOnPeers(claimKey));
+    }
+
+    /**
+     * Free the racks held under any of the claim keys, with one call per partition.
+     */
+    public List<String> releaseClaims(List<String> claimKeys, boolean localOnly) {
+        List<String> local = placeService.releaseClaims(claimKeys);
+        if (localOnly || !placePartition.isPartitioned() || claimKeys == null || claimKeys.isEmpty()) {
+            return local;
+        }
+        return flatten(local, placePartitionClient.releaseClaimsOnPeers(claimKeys));
+    }
+
+    /**
+     * Free racks of one section. A partitioned instance that does not own the section reads
+     * them from a partition that does.
+     */
+    public List<PlaceDTO> getFreePlacesBySection(String sectionCode, boolean localOnly) {
+        if (localOnly || placePartition.owns(sectionCode)) {
+            return placeService.getFreePlacesBySection(sectionCode);
+        }
+        String path = UriComponentsBuilder.fromPath("/api/places/free/section/{sectionCode}")
+                .buildAndExpand(sectionCode).encode().toUriString();
+        return placePartitionClient.getFromSectionOwner(sectionCode, path);
+    }
+
+    /**
+     * Run several claims in one call; a claim that cannot be satisfied is reported in its
+     * result without undoing the others.
+     */
+    public List<ClaimPlacesResultDTO> claimPlacesBatch(List<ClaimPlacesRequestDTO> requests, boolean localOnly) {
+        if (localOnly || !placePartition.isPartitioned()) {
+            return placeService.claimPlacesBatch(requests);
+        }
+        List<ClaimPlacesResultDTO> results = new ArrayList<>(requests.size());
+        for (ClaimPlacesRequestDTO request : requests) {
+            try {
+                results.add(new ClaimPlacesResultDTO(claimPlaces(request, false), null));
+            } catch (RuntimeException e) {
+                results.add(new ClaimPlacesResultDTO(null, e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    public void givePlacesToUser(GivePlacesRequestDTO request, boolean localOnly) {
+        if (localOnly || !placePartition.isPartitioned()) {
+            placeService.givePlacesToUser(request);
+            return;
+        }
+        Map<ServiceInstance, List<String>> remote = new LinkedHashMap<>();
+        List<String> local = locate(request.getPlaceIds(), remote);
+
+        List<String> givenLocally = new ArrayList<>();
+        Map<ServiceInstance, List<String>> givenRemotely = new LinkedHashMap<>();
+        try {
+            if (!local.isEmpty()) {
+                placeService.givePlacesToUser(new GivePlacesRequestDTO(local, request.getUserId()));
+                givenLocally.addAll(local);
+            }
+            for (Map.Entry<ServiceInstance, List<String>> owner : remote.entrySet()) {
+                placePartitionClient.post(owner.getKey(), "/api/places/give",
+                        new GivePlacesRequestDTO(owner.getValue(), request.getUserId()),
+                        new ParameterizedTypeReference<Void>() {});
+                givenRemotely.put(owner.getKey(), owner.getValue());
+            }
+        } catch (RuntimeException e) {
+            release(givenLocally, givenRemotely);
+            throw e;
+        }
+    }
+
+    public void makePlacesFree(List<String> placeIds, boolean localOnly) {
+        if (localOnly || !placePartition.isPartitioned()) {
+            placeService.makePlacesFree(placeIds);
+            return;
+        }
+        Map<ServiceInstance, List<String>> remote = new LinkedHashMap<>();
+        List<String> local = locate(placeIds, remote);
+        if (!local.isEmpty()) {
+            placeService.makePlacesFree(local);
+        }
+        for (Map.Entry<ServiceInstance, List<String>> owner : remote.entrySet()) {
+            placePartitionClient.post(owner.getKey(), "/api/places/free", owner.getValue(),
+                    new ParameterizedTypeReference<Void>() {});
+        }
+    }
+
+    /**
+     * Split the racks into the ones stored here (returned) and the ones stored by other
+     * partitions (added to {@code remote}). Fails on a rack that no partition stores.
+     */
+    private List<String> locate(List<String> placeIds, Map<ServiceInstance, List<String>> remote) {
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(placeIds));
+        List<String> local = placeService.findStoredRackIds(ids);
+        Set<String> unresolved = new LinkedHashSet<>(ids);
+        local.forEach(unresolved::remove);
+        if (unresolved.isEmpty()) {
+            return local;
+        }
+
+        Set<String> assigned = new HashSet<>();
+        placePartitionClient.findOwners(new ArrayList<>(unresolved)).forEach((peer, owned) -> {
+            List<String> rackIds = new ArrayList<>();
+            for (String rackId : owned) {
+                // Each rack goes to one partition even if several report it
+                if (unresolved.contains(rackId) && assigned.add(rackId)) {
+                    rackIds.add(rackId);
+                }
+            }
+            if (!rackIds.isEmpty()) {
+                remote.put(peer, rackIds);
+            }
+        });
+        unresolved.removeAll(assigned);
+        if (!unresolved.isEmpty()) {
+            throw new RuntimeException("Place not found: " + unresolved.iterator().next());
+        }
+        return local;
+    }
+
+    private void releaseClaimOn(ServiceInstance peer, String claimKey) {
+        try {
+            placePartitionClient.releaseClaim(peer, claimKey);
+        } catch (RuntimeException e) {
+            logger.error("Failed to release claim {} on partition {}, its racks stay occupied until released: {}",
+                    claimKey, peer.getInstanceId(), e.getMessage());
+        }
+    }
+
+    private static int total(List<String> local, Map<ServiceInstance, List<String>> remote) {
+        return local.size() + remote.values().stream().mapToInt(List::size).sum();
+    }
+
+    private static List<String> flatten(List<String> local, Map<ServiceInstance, List<String>> remote) {
+        List<String> placeIds = new ArrayList<>(local);
+        remote.values().forEach(placeIds::addAll);
+        return placeIds;
+    }
+
+    private void release(List<String> local, Map<ServiceInstance, List<String>> remote) {
+        try {
+            if (!local.isEmpty()) {
+                placeService.makePlacesFree(local);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Failed to release racks {}: {}", local, e.getMessage());
+        }
+        remote.forEach((peer, placeIds) -> {
+            try {
+                placePartitionClient.post(peer, "/api/places/free", placeIds, new ParameterizedTypeReference<Void>() {});
+            } catch (RuntimeException e) {
+                logger.error("Failed to release racks {} on partition {}: {}",
+                        placeIds, peer.getInstanceId(), e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Merge listings by rackId; a rack reported by several instances (replicas, or a peer
+     * that is not partitioned) is listed once, preferring the local copy.
+     */
+    private List<PlaceDTO> merge(List<PlaceDTO> local, List<PlaceDTO> remote) {
+        Map<String, PlaceDTO> merged = new TreeMap<>();
+        local.forEach(place -> merged.put(place.getRackId(), place));
+        remote.forEach(place -> merged.putIfAbsent(place.getRackId(), place));
+        return new ArrayList<>(merged.values());
+    }
+}
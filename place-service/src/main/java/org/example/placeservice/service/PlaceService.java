@@ -1,73 +1,616 @@
 package org.example.placeservice.service;
 
+import org.example.placeservice.config.PlacePartition;
+import org.example.placeservice.dto.BookPlacesRequestDTO;
+import org.example.placeservice.dto.ClaimPlacesRequestDTO;
+import org.example.placeservice.dto.ClaimPlacesResultDTO;
 import org.example.placeservice.dto.GivePlacesRequestDTO;
 import org.example.placeservice.dto.PlaceDTO;
+import org.example.placeservice.dto.PlaceCountDTO;
+import org.example.placeservice.dto.PlacePageDTO;
+import org.example.placeservice.dto.RackStatusEventDTO;
 import org.example.placeservice.model.Place;
+import org.example.placeservice.model.PlaceBooking;
+import org.example.placeservice.repository.PlaceBookingRepository;
 import org.example.placeservice.repository.PlaceRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
 import java.util.stream.Collectors;
 
 @Service
 public class PlaceService {
 
+    private static final Logger logger = LoggerFactory.getLogger(PlaceService.class);
+
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int STREAM_FLUSH_INTERVAL = 500;
+    private static final int DEFAULT_FIT_LIMIT = 10;
+    private static final int CLAIM_WINDOW_FACTOR = 4;
+    private static final int MIN_CLAIM_WINDOW = 64;
+
     @Autowired
     private PlaceRepository placeRepository;
 
+    @Autowired
+    private FreePlaceIndex freePlaceIndex;
+
+    @Autowired
+    private PlaceBookingRepository placeBookingRepository;
+
+    @Autowired
+    private RackBookingIndex rackBookingIndex;
+
+    @Autowired
+    private PlaceUpdateExecutor placeUpdateExecutor;
+
+    @Autowired
+    private PlaceEventPublisher placeEventPublisher;
+
+    @Autowired
+    private PlaceCounters placeCounters;
+
+    @Autowired
+    private PlaceJsonCache placeJsonCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Load the free-rack index once the sample data has been initialized.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildFreePlaceIndex() {
+        freePlaceIndex.rebuild(placeRepository.findAllDTOsWithVersion());
+        placeJsonCache.clear();
+        placeCounters.rebuild(placeRepository.countBySectionTypeAndStatus());
+        logger.info("Free place index built with {} racks", freePlaceIndex.size());
+    }
+
+    /**
+     * Load every stored booking into the per-rack calendars.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildRackBookingIndex() {
+        List<PlaceBooking> bookings = placeBookingRepository.findAll();
+        rackBookingIndex.rebuild(bookings);
+        logger.info("Rack booking index built with {} bookings", bookings.size());
+    }
+
+    /**
+     * Add newly committed racks to the counters and the free ones to the index (used by bulk import).
+     */
+    public void addToFreePlaceIndex(List<Place> places) {
+        for (Place place : places) {
+            PlaceDTO dto = convertToDTO(place);
+            if (place.getStatus() == Place.RackStatus.FREE) {
+                freePlaceIndex.add(dto, place.getVersion() != null ? place.getVersion() : 0);
+            }
+            placeCounters.added(dto);
+        }
+    }
+
     public List<PlaceDTO> getAllFreePlaces() {
-        List<Place> places = placeRepository.findByStatus(Place.RackStatus.FREE);
-        return places.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        if (freePlaceIndex.isReady()) {
+            return freePlaceIndex.getAll();
+        }
+        return placeRepository.findDTOsByStatus(Place.RackStatus.FREE);
+    }
+
+    /**
+     * One page of free racks ordered by rackId, starting after the given cursor.
+     */
+    public PlacePageDTO getFreePlacesPage(String after, Integer size) {
+        String cursor = after != null ? after : "";
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        List<PlaceDTO> items;
+        if (freePlaceIndex.isReady()) {
+            items = freePlaceIndex.getPage(cursor, pageSize);
+        } else {
+            items = placeRepository.findDTOsByStatusAfter(Place.RackStatus.FREE, cursor,
+                    PageRequest.of(0, pageSize));
+        }
+
+        String nextCursor = items.size() == pageSize ? items.get(items.size() - 1).getRackId() : null;
+        return new PlacePageDTO(items, nextCursor);
+    }
+
+    /**
+     * Write every free rack as newline-delimited JSON, reading rows through a cursor
+     * as DTO projections so no entities accumulate in the persistence context.
+     */
+    @Transactional(readOnly = true)
+    public void streamFreePlaces(OutputStream out) {
+        try (Stream<PlaceDTO> places = placeRepository.streamDTOsByStatus(Place.RackStatus.FREE)) {
+            int written = 0;
+            for (PlaceDTO place : (Iterable<PlaceDTO>) places::iterator) {
+                out.write(objectMapper.writeValueAsBytes(place));
+                out.write('\n');
+                if (++written % STREAM_FLUSH_INTERVAL == 0) {
+                    out.flush();
+                }
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The given rackIds that are stored by this instance.
+     */
+    public List<String> findStoredRackIds(List<String> placeIds) {
+        if (placeIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return placeRepository.findExistingRackIds(placeIds);
     }
 
     public List<PlaceDTO> getPlacesByUserId(String userId) {
-        List<Place> places = placeRepository.findByTenantId(userId);
-        return places.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return placeRepository.findDTOsByTenantId(userId);
     }
 
-    @Transactional
     public void givePlacesToUser(GivePlacesRequestDTO request) {
-        List<String> placeIds = request.getPlaceIds();
+        List<String> placeIds = distinct(request.getPlaceIds());
         String userId = request.getUserId();
+        if (placeIds.isEmpty()) {
+            return;
+        }
+
+        placeUpdateExecutor.execute("give", () -> {
+            Map<String, Place> places = findAllByIdOrThrow(placeIds);
+            for (String placeId : placeIds) {
+                if (places.get(placeId).getStatus() != Place.RackStatus.FREE) {
+                    throw new RuntimeException("Place is not free: " + placeId);
+                }
+            }
+            List<String> booked = placeBookingRepository.findRackIdsBookedFrom(placeIds, LocalDate.now());
+            if (!booked.isEmpty()) {
+                throw new RuntimeException("Place is booked: " + booked.get(0));
+            }
+
+            occupy(placeIds.stream().map(places::get).collect(Collectors.toList()), placeIds.size(), userId, null);
+            return null;
+        });
+    }
+
+    /**
+     * Pick and occupy {@code count} free racks of the given type in one transaction.
+     * Racks with a booking that has not ended are skipped.
+     * <p>
+     * The racks are picked in random order from a window of the first free racks by rackId, so
+     * concurrent claims mostly pick different racks instead of all contending for the same ones.
+     * A rack taken concurrently fails the version check and is replaced from the window; only
+     * when the window runs out is the claim retried with fresh candidates. The update locks each
+     * rack it takes until commit, in both concurrency modes, so concurrent claims never receive
+     * the same rack.
+     * <p>
+     * A claim with a claim key records the key on its racks. Repeating it (a retry after a
+     * timeout, say) counts the racks already held under the key towards {@code count} and
+     * returns them together with any still missing, instead of occupying a second set.
+     */
+    public List<String> claimPlaces(ClaimPlacesRequestDTO request) {
+        if (request.getCount() == null || request.getCount() <= 0) {
+            throw new RuntimeException("Rack count must be positive");
+        }
+        Place.RackType rackType = Place.RackType.valueOf(request.getType());
+        int count = request.getCount();
+        String claimKey = request.getClaimKey();
 
+        return placeUpdateExecutor.execute("claim", () -> {
+            List<String> held = claimKey != null ? placeRepository.findRackIdsByClaimKey(claimKey) : List.of();
+            int missing = count - held.size();
+            if (missing <= 0) {
+                return held;
+            }
+            int window = Math.max(missing * CLAIM_WINDOW_FACTOR, MIN_CLAIM_WINDOW);
+            List<Place> candidates = new ArrayList<>(placeRepository.findClaimable(Place.RackStatus.FREE, rackType,
+                    LocalDate.now(), PageRequest.of(0, window)));
+            if (candidates.size() < missing) {
+                throw new RuntimeException("Not enough free places available. Required: " +
+                        missing + ", Available: " + candidates.size());
+            }
+            Collections.shuffle(candidates);
+            List<String> placeIds = new ArrayList<>(held);
+            placeIds.addAll(occupy(candidates, missing, request.getUserId(), claimKey));
+            return placeIds;
+        });
+    }
+
+    /**
+     * Racks currently held under the claim key.
+     */
+    public List<String> findClaimedRackIds(String claimKey) {
+        return placeRepository.findRackIdsByClaimKey(claimKey);
+    }
+
+    /**
+     * Run several claims in one call. Each claim is applied in its own transaction, so
+     * a claim that cannot be satisfied is reported in its result without undoing the others.
+     */
+    public List<ClaimPlacesResultDTO> claimPlacesBatch(List<ClaimPlacesRequestDTO> requests) {
+        List<ClaimPlacesResultDTO> results = new ArrayList<>(requests.size());
+        for (ClaimPlacesRequestDTO request : requests) {
+            try {
+                results.add(new ClaimPlacesResultDTO(claimPlaces(request), null));
+            } catch (RuntimeException e) {
+                results.add(new ClaimPlacesResultDTO(null, e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Free racks of one warehouse section; {@value PlacePartition#UNASSIGNED_SECTION} selects racks without a section.
+     */
+    public List<PlaceDTO> getFreePlacesBySection(String sectionCode) {
+        String section = PlacePartition.UNASSIGNED_SECTION.equalsIgnoreCase(sectionCode) ? null : sectionCode;
+        return getAllFreePlaces().stream()
+                .filter(place -> section == null
+                        ? place.getSectionCode() == null
+                        : section.equalsIgnoreCase(place.getSectionCode()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Free racks that cover the requested dimensions, smallest sufficient volume first.
+     */
+    public List<PlaceDTO> getBestFitPlaces(Integer minWidth, Integer minHeight, Integer minDepth,
+                                           String type, Integer limit) {
+        int width = minWidth != null ? minWidth : 0;
+        int height = minHeight != null ? minHeight : 0;
+        int depth = minDepth != null ? minDepth : 0;
+        if (width < 0 || height < 0 || depth < 0) {
+            throw new RuntimeException("Dimensions must not be negative");
+        }
+        Place.RackType rackType = type != null ? Place.RackType.valueOf(type) : null;
+        int maxResults = limit != null && limit > 0 ? limit : DEFAULT_FIT_LIMIT;
+
+        if (freePlaceIndex.isReady()) {
+            return freePlaceIndex.getBestFit(width, height, depth, rackType, maxResults);
+        }
+        List<PlaceDTO> candidates = rackType != null ? getFreePlacesByType(type) : getAllFreePlaces();
+        return candidates.stream()
+                .filter(place -> FreePlaceIndex.fits(place, width, height, depth))
+                .sorted(Comparator.comparingLong(FreePlaceIndex::volumeOf).thenComparing(PlaceDTO::getRackId))
+                .limit(maxResults)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Racks of the given type that have no booking overlapping [from, to].
+     * Racks held through the undated OCCUPIED flag stay unavailable for any window.
+     */
+    public List<PlaceDTO> getAvailablePlaces(String type, LocalDate from, LocalDate to) {
+        validateWindow(from, to);
+        return getFreePlacesByType(type).stream()
+                .filter(place -> rackBookingIndex.isFree(place.getRackId(), from, to))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Book free racks for the window. Either every rack is booked or none is.
+     * <p>
+     * The racks' rows are locked by bumping their version before the overlap check runs
+     * against the table, so concurrent bookings of a rack - on this or another instance -
+     * are checked one after the other, and a concurrent claim of the rack either
+     * happens first (the rack is no longer free) or sees the booking.
+     */
+    @Transactional
+    public void bookPlaces(BookPlacesRequestDTO request) {
+        LocalDate from = request.getFrom();
+        LocalDate to = request.getTo();
+        validateWindow(from, to);
+        List<String> placeIds = distinct(request.getPlaceIds());
+        if (placeIds.isEmpty()) {
+            return;
+        }
+        Map<String, Place> places = findAllByIdOrThrow(placeIds);
         for (String placeId : placeIds) {
-            Place place = placeRepository.findById(placeId)
-                    .orElseThrow(() -> new RuntimeException("Place not found: " + placeId));
-            
-            if (place.getStatus() != Place.RackStatus.FREE) {
+            if (places.get(placeId).getStatus() != Place.RackStatus.FREE) {
                 throw new RuntimeException("Place is not free: " + placeId);
             }
+        }
+        if (placeRepository.touchWhereStatus(placeIds, Place.RackStatus.FREE) != placeIds.size()) {
+            throw new RuntimeException("Places are no longer free: " + placeIds);
+        }
 
-            place.setStatus(Place.RackStatus.OCCUPIED);
-            place.setTenantId(userId);
-            placeRepository.save(place);
+        List<String> conflicts = placeBookingRepository.findRackIdsBookedBetween(placeIds, from, to);
+        if (!conflicts.isEmpty()) {
+            throw new RuntimeException("Place is already booked for " + from + " - " + to + ": " + conflicts.get(0));
         }
+
+        List<PlaceBooking> bookings = placeIds.stream()
+                .map(placeId -> new PlaceBooking(placeId, request.getUserId(), from, to))
+                .collect(Collectors.toList());
+        placeBookingRepository.saveAll(bookings);
+        afterCommit(() -> rackBookingIndex.add(placeIds, from, to));
     }
 
+    /**
+     * Remove the bookings that exactly match the window on the given racks.
+     */
     @Transactional
+    public void releaseBookings(BookPlacesRequestDTO request) {
+        LocalDate from = request.getFrom();
+        LocalDate to = request.getTo();
+        validateWindow(from, to);
+        List<String> placeIds = distinct(request.getPlaceIds());
+        if (placeIds.isEmpty()) {
+            return;
+        }
+
+        placeBookingRepository.deleteAll(
+                placeBookingRepository.findByRackIdInAndStartDateAndEndDate(placeIds, from, to));
+        afterCommit(() -> rackBookingIndex.release(placeIds, from, to));
+    }
+
+    /**
+     * Occupy {@code count} of the candidate racks, in order. A rack changed by a concurrent
+     * transaction fails the version check and is replaced by the next candidate; the claim
+     * fails only once the candidates run out.
+     */
+    private List<String> occupy(List<Place> candidates, int count, String userId, String claimKey) {
+        Map<String, Long> versions = new LinkedHashMap<>();
+        int next = 0;
+        while (versions.size() < count) {
+            int wanted = count - versions.size();
+            if (candidates.size() - next < wanted) {
+                throw new OptimisticLockingFailureException("Places are no longer free: "
+                        + wanted + " of " + count + " were changed concurrently");
+            }
+            Map<String, Long> expected = expectedVersions(candidates.subList(next, next + wanted));
+            next += wanted;
+            List<String> changed = placeRepository.updateStatusWhereVersion(expected, Place.RackStatus.OCCUPIED,
+                    userId, claimKey);
+            changed.forEach(expected::remove);
+            versions.putAll(expected);
+        }
+        List<String> placeIds = new ArrayList<>(versions.keySet());
+        List<String> booked = placeBookingRepository.findRackIdsBookedFrom(placeIds, LocalDate.now());
+        if (!booked.isEmpty()) {
+            throw new OptimisticLockingFailureException("Places were booked concurrently: " + booked);
+        }
+
+        afterCommit(() -> placeEventPublisher.publish(() -> {
+            List<RackStatusEventDTO> changes = new ArrayList<>();
+            for (String placeId : placeIds) {
+                long version = versions.get(placeId) + 1;
+                if (!freePlaceIndex.isCurrent(placeId, version)) {
+                    // A later change of this rack committed and was applied first
+                    continue;
+                }
+                PlaceDTO removed = freePlaceIndex.remove(placeId, version);
+                placeJsonCache.invalidate(placeId);
+                if (removed != null) {
+                    placeCounters.occupied(removed);
+                }
+                changes.add(new RackStatusEventDTO(placeId, Place.RackStatus.FREE.name(),
+                        Place.RackStatus.OCCUPIED.name(), userId));
+            }
+            return changes;
+        }));
+        return placeIds;
+    }
+
     public void makePlacesFree(List<String> placeIds) {
-        for (String placeId : placeIds) {
-            Place place = placeRepository.findById(placeId)
-                    .orElseThrow(() -> new RuntimeException("Place not found: " + placeId));
-            
-            place.setStatus(Place.RackStatus.FREE);
-            place.setTenantId(null);
-            placeRepository.save(place);
+        List<String> ids = distinct(placeIds);
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        placeUpdateExecutor.execute("free", () -> {
+            free(findAllByIdOrThrow(ids).values());
+            return null;
+        });
+    }
+
+    /**
+     * Free every rack still held under the claim key and return their IDs. Racks freed or
+     * claimed under another key in the meantime are left alone, so releasing a claim twice,
+     * or after its racks went to someone else, never takes racks from their new holder.
+     */
+    public List<String> releaseClaim(String claimKey) {
+        return releaseClaims(List.of(claimKey));
+    }
+
+    /**
+     * Release several claims in one transaction, as {@link #releaseClaim(String)} does for one.
+     */
+    public List<String> releaseClaims(Collection<String> claimKeys) {
+        if (claimKeys == null || claimKeys.isEmpty()) {
+            return new ArrayList<>();
         }
+        Set<String> keys = new HashSet<>(claimKeys);
+        return placeUpdateExecutor.execute("release", () -> {
+            List<String> ids = placeRepository.findRackIdsByClaimKeyIn(keys);
+            if (ids.isEmpty()) {
+                return ids;
+            }
+            List<Place> held = findAllByIdOrThrow(ids).values().stream()
+                    .filter(place -> keys.contains(place.getClaimKey()))
+                    .collect(Collectors.toList());
+            free(held);
+            return held.stream().map(Place::getRackId).sorted().collect(Collectors.toList());
+        });
+    }
+
+    /**
+     * Free the loaded racks, failing with a version conflict if any of them changed since they were read.
+     */
+    private void free(Collection<Place> places) {
+        if (places.isEmpty()) {
+            return;
+        }
+        Map<String, String> previousStatus = new LinkedHashMap<>();
+        List<PlaceDTO> released = new ArrayList<>();
+        for (Place place : places) {
+            previousStatus.put(place.getRackId(), place.getStatus().name());
+            PlaceDTO dto = convertToDTO(place);
+            dto.setStatus(Place.RackStatus.FREE.name());
+            dto.setTenantId(null);
+            released.add(dto);
+        }
+
+        Map<String, Long> versions = expectedVersions(places);
+        List<String> changed = placeRepository.updateStatusWhereVersion(versions, Place.RackStatus.FREE, null, null);
+        if (!changed.isEmpty()) {
+            throw new OptimisticLockingFailureException("Places were changed concurrently: " + changed);
+        }
+
+        afterCommit(() -> placeEventPublisher.publish(() -> {
+            List<RackStatusEventDTO> changes = new ArrayList<>();
+            for (PlaceDTO dto : released) {
+                long version = versions.get(dto.getRackId()) + 1;
+                if (!freePlaceIndex.isCurrent(dto.getRackId(), version)) {
+                    // A later change of this rack committed and was applied first
+                    continue;
+                }
+                placeJsonCache.invalidate(dto.getRackId());
+                if (freePlaceIndex.add(dto, version)) {
+                    placeCounters.released(dto);
+                }
+                changes.add(new RackStatusEventDTO(dto.getRackId(), previousStatus.get(dto.getRackId()),
+                        Place.RackStatus.FREE.name(), null));
+            }
+            return changes;
+        }));
     }
 
     public List<PlaceDTO> getFreePlacesByType(String type) {
         Place.RackType rackType = Place.RackType.valueOf(type);
-        List<Place> places = placeRepository.findByStatusAndType(Place.RackStatus.FREE, rackType);
-        return places.stream()
-                .map(this::convertToDTO)
+        if (freePlaceIndex.isReady()) {
+            return freePlaceIndex.getByType(rackType);
+        }
+        return placeRepository.findDTOsByStatusAndType(Place.RackStatus.FREE, rackType);
+    }
+
+    /**
+     * Free and occupied rack counts for the given type and/or section, read from the counters.
+     */
+    public PlaceCountDTO countPlaces(String type, String sectionCode) {
+        Place.RackType rackType = type != null ? Place.RackType.valueOf(type) : null;
+        return placeCounters.get(rackType, sectionCode);
+    }
+
+    /**
+     * Compare the free-rack index with the places table.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> checkFreePlaceIndex() {
+        Set<String> indexed = new HashSet<>(freePlaceIndex.getRackIds());
+        Set<String> stored = new HashSet<>(placeRepository.findRackIdsByStatus(Place.RackStatus.FREE));
+
+        List<String> missingInIndex = stored.stream()
+                .filter(rackId -> !indexed.contains(rackId))
+                .sorted()
                 .collect(Collectors.toList());
+        List<String> staleInIndex = indexed.stream()
+                .filter(rackId -> !stored.contains(rackId))
+                .sorted()
+                .collect(Collectors.toList());
+        long counterFree = placeCounters.get(null, null).getFree();
+        boolean consistent = missingInIndex.isEmpty() && staleInIndex.isEmpty() && counterFree == stored.size();
+        if (!consistent) {
+            logger.warn("Free place index is out of sync: missing={}, stale={}, counterFree={}",
+                    missingInIndex, staleInIndex, counterFree);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("consistent", consistent);
+        report.put("indexSize", indexed.size());
+        report.put("databaseSize", stored.size());
+        report.put("counterFree", counterFree);
+        report.put("missingInIndex", missingInIndex);
+        report.put("staleInIndex", staleInIndex);
+        return report;
+    }
+
+    /**
+     * Load all places in one query, failing on the first ID that does not exist.
+     */
+    private Map<String, Place> findAllByIdOrThrow(List<String> placeIds) {
+        List<Place> found = placeUpdateExecutor.isPessimistic()
+                ? placeRepository.findAllByIdForUpdate(placeIds)
+                : placeRepository.findAllById(placeIds);
+        Map<String, Place> places = found.stream()
+                .collect(Collectors.toMap(Place::getRackId, Function.identity()));
+        for (String placeId : placeIds) {
+            if (!places.containsKey(placeId)) {
+                throw new RuntimeException("Place not found: " + placeId);
+            }
+        }
+        return places;
+    }
+
+    /**
+     * The version each rack was read with, in iteration order. The update applies only to rows
+     * that still have it, and commits version + 1.
+     */
+    private Map<String, Long> expectedVersions(Collection<Place> places) {
+        Map<String, Long> versions = new LinkedHashMap<>();
+        for (Place place : places) {
+            versions.put(place.getRackId(), place.getVersion() != null ? place.getVersion() : 0L);
+        }
+        return versions;
+    }
+
+    private void validateWindow(LocalDate from, LocalDate to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new RuntimeException("Invalid date window: " + from + " - " + to);
+        }
+    }
+
+    private List<String> distinct(List<String> placeIds) {
+        return new ArrayList<>(new LinkedHashSet<>(placeIds));
+    }
+
+    /**
+     * Run the action once the current transaction commits, so a rollback never
+     * leaks into the in-memory index. Callbacks of different transactions are not
+     * ordered, which is why index updates are checked against row versions.
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 
     private PlaceDTO convertToDTO(Place place) {
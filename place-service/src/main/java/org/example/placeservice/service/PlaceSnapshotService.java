@@ -0,0 +1,260 @@
+package org.example.placeservice.service;
+
+import org.example.placeservice.dto.PlaceDTO;
+import org.example.placeservice.model.Place;
+import org.example.placeservice.repository.PlaceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Compact binary snapshot of the rack table.
+ * <p>
+ * The snapshot is written on shutdown (and on demand) and loaded at startup when the
+ * places table is empty: rows are read sequentially from one file and inserted with
+ * plain JDBC batches, which is much cheaper than seeding or importing through JPA.
+ * With the file-based "persistent" profile the database itself survives restarts and
+ * the snapshot only serves as a portable fallback, e.g. for a fresh node or a lost
+ * database file.
+ * <p>
+ * Format: magic, format version, then one record per rack, each preceded by a
+ * continuation flag. Nullable values (section, number, price, dimensions, tenant, claim
+ * key) are prefixed with a presence flag; enums are stored by ordinal. Version 1 files,
+ * which had no flags on number, price and dimensions, and version 2 files, which had no
+ * claim key, are still read.
+ */
+@Service
+public class PlaceSnapshotService {
+
+    private static final int MAGIC = 0x504C4331; // "PLC1"
+    private static final int FORMAT_VERSION = 3;
+    private static final int FIRST_NULLABLE_NUMBERS_VERSION = 2;
+    private static final int FIRST_CLAIM_KEY_VERSION = 3;
+    private static final int INSERT_BATCH_SIZE = 5000;
+    private static final String INSERT_SQL = "INSERT INTO places (rack_id, section_code, number, type, status, "
+            + "price_per_day, width, height, depth, tenant_id, claim_key, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private static final Logger logger = LoggerFactory.getLogger(PlaceSnapshotService.class);
+
+    private final PlaceRepository placeRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final String path;
+
+    private volatile boolean started;
+
+    public PlaceSnapshotService(PlaceRepository placeRepository,
+                                JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${place.snapshot.enabled:false}") boolean enabled,
+                                @Value("${place.snapshot.path:./data/places.snapshot}") String path) {
+        this.placeRepository = placeRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.path = path;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Load the snapshot into the empty places table. Returns the number of restored racks.
+     */
+    @Transactional
+    public int restore() {
+        Path file = Paths.get(path);
+        if (!enabled || !Files.isRegularFile(file)) {
+            return 0;
+        }
+
+        long started = System.currentTimeMillis();
+        int restored = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            int version = in.readInt() == MAGIC ? in.readInt() : -1;
+            if (version < 1 || version > FORMAT_VERSION) {
+                logger.warn("Ignoring snapshot {}: unknown format", file);
+                return 0;
+            }
+            boolean nullableNumbers = version >= FIRST_NULLABLE_NUMBERS_VERSION;
+            boolean claimKeys = version >= FIRST_CLAIM_KEY_VERSION;
+            Place.RackType[] types = Place.RackType.values();
+            Place.RackStatus[] statuses = Place.RackStatus.values();
+            List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+            while (in.readBoolean()) {
+                batch.add(new Object[]{
+                        in.readUTF(),
+                        readNullable(in),
+                        readInt(in, nullableNumbers),
+                        types[in.readByte()].name(),
+                        statuses[in.readByte()].name(),
+                        readPrice(in, nullableNumbers),
+                        readInt(in, nullableNumbers),
+                        readInt(in, nullableNumbers),
+                        readInt(in, nullableNumbers),
+                        readNullable(in),
+                        claimKeys ? readNullable(in) : null
+                });
+                if (batch.size() == INSERT_BATCH_SIZE) {
+                    restored += insert(batch);
+                }
+            }
+            restored += insert(batch);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read snapshot " + file, e);
+        }
+
+        logger.info("Restored {} racks from snapshot {} in {} ms", restored, file,
+                System.currentTimeMillis() - started);
+        return restored;
+    }
+
+    /**
+     * Write the current rack table to the snapshot file, replacing the previous one atomically.
+     */
+    public int write() {
+        Path file = Paths.get(path).toAbsolutePath();
+        long started = System.currentTimeMillis();
+        int written;
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                written = readOnlyTransaction.execute(status -> writeRacks(out));
+                out.writeBoolean(false);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write snapshot " + file, e);
+        }
+
+        logger.info("Wrote {} racks to snapshot {} in {} ms", written, file, System.currentTimeMillis() - started);
+        return written;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void markStarted() {
+        started = true;
+    }
+
+    /**
+     * Skipped if startup has not finished: the table may still be half restored and
+     * writing it would replace a good snapshot with a partial one.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void writeOnShutdown() {
+        if (!enabled) {
+            return;
+        }
+        if (!started) {
+            logger.warn("Skipping snapshot on shutdown: startup did not complete");
+            return;
+        }
+        try {
+            write();
+        } catch (RuntimeException e) {
+            logger.error("Snapshot on shutdown failed: {}", e.getMessage());
+        }
+    }
+
+    private int writeRacks(DataOutputStream out) {
+        int written = 0;
+        try (Stream<Object[]> rows = placeRepository.streamAllDTOsWithClaimKey()) {
+            for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                out.writeBoolean(true);
+                writeRack(out, (PlaceDTO) row[0], (String) row[1]);
+                written++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return written;
+    }
+
+    private int insert(List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+        int inserted = batch.size();
+        batch.clear();
+        return inserted;
+    }
+
+    private static void writeRack(DataOutputStream out, PlaceDTO place, String claimKey) throws IOException {
+        out.writeUTF(place.getRackId());
+        writeNullable(out, place.getSectionCode());
+        writeNullable(out, place.getNumber());
+        out.writeByte(Place.RackType.valueOf(place.getType()).ordinal());
+        out.writeByte(Place.RackStatus.valueOf(place.getStatus()).ordinal());
+        writeNullable(out, place.getPricePerDay() != null ? place.getPricePerDay().toPlainString() : null);
+        PlaceDTO.DimensionsDTO dimensions = place.getDimensions();
+        writeNullable(out, dimensions != null ? dimensions.getWidth() : null);
+        writeNullable(out, dimensions != null ? dimensions.getHeight() : null);
+        writeNullable(out, dimensions != null ? dimensions.getDepth() : null);
+        writeNullable(out, place.getTenantId());
+        writeNullable(out, claimKey);
+    }
+
+    private static void writeNullable(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static Integer readInt(DataInputStream in, boolean nullable) throws IOException {
+        if (nullable && !in.readBoolean()) {
+            return null;
+        }
+        return in.readInt();
+    }
+
+    private static BigDecimal readPrice(DataInputStream in, boolean nullable) throws IOException {
+        String price = nullable ? readNullable(in) : in.readUTF();
+        return price != null ? new BigDecimal(price) : null;
+    }
+}
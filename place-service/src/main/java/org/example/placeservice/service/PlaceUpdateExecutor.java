@@ -0,0 +1,95 @@
+package org.example.placeservice.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs rack status changes in their own transaction and retries them a bounded number
+ * of times when a concurrent writer (possibly another place-service instance) wins the race:
+ * a failed version check, or a deadlock or lock timeout the database resolved by rolling
+ * this transaction back.
+ * <p>
+ * In {@link LockMode#OPTIMISTIC} mode rows are read without locks and conflicts are detected
+ * at write time by the version check; in {@link LockMode#PESSIMISTIC} mode racks given or
+ * freed by ID are locked with SELECT ... FOR UPDATE before they are checked, so conflicts turn
+ * into waits instead of retries. Claims never lock their candidates up front: H2 has no
+ * SKIP LOCKED, so they rely on the version check in both modes.
+ */
+@Component
+public class PlaceUpdateExecutor {
+
+    public enum LockMode {
+        OPTIMISTIC, PESSIMISTIC
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(PlaceUpdateExecutor.class);
+
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final LockMode lockMode;
+    private final int maxAttempts;
+    private final long backoffMs;
+
+    public PlaceUpdateExecutor(PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${place.concurrency.mode:optimistic}") String lockMode,
+                               @Value("${place.concurrency.max-attempts:3}") int maxAttempts,
+                               @Value("${place.concurrency.backoff-ms:25}") long backoffMs) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.lockMode = LockMode.valueOf(lockMode.trim().toUpperCase());
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMs = Math.max(0, backoffMs);
+    }
+
+    public boolean isPessimistic() {
+        return lockMode == LockMode.PESSIMISTIC;
+    }
+
+    public <T> T execute(String operation, Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                T result = transactionTemplate.execute(status -> action.get());
+                count("place.update.success", operation);
+                return result;
+            } catch (ConcurrencyFailureException e) {
+                count("place.update.conflicts", operation);
+                if (attempt >= maxAttempts) {
+                    count("place.update.exhausted", operation);
+                    logger.warn("{} gave up after {} attempts: {}", operation, attempt, e.getMessage());
+                    throw e;
+                }
+                count("place.update.retries", operation);
+                logger.debug("{} conflict on attempt {}, retrying: {}", operation, attempt, e.getMessage());
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void count(String name, String operation) {
+        meterRegistry.counter(name, "operation", operation, "mode", lockMode.name().toLowerCase()).increment();
+    }
+
+    private void backoff(int attempt) {
+        if (backoffMs == 0) {
+            return;
+        }
+        // Linear backoff with jitter so competing instances do not retry in lockstep
+        long delay = backoffMs * attempt + ThreadLocalRandom.current().nextLong(backoffMs + 1);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while retrying place update", e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.placeservice.service;
+
+import org.example.placeservice.model.PlaceBooking;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-rack booking calendar. Each rack keeps its bookings as a sorted map of
+ * non-overlapping, inclusive [start, end] intervals keyed by start date, so an
+ * overlap check is a single floorEntry lookup - O(log b) in the rack's bookings.
+ * It serves availability reads; PlaceService checks new bookings against the table
+ * and updates the calendars after commit.
+ */
+@Component
+public class RackBookingIndex {
+
+    private final Map<String, NavigableMap<LocalDate, LocalDate>> bookingsByRack = new ConcurrentHashMap<>();
+
+    public synchronized void rebuild(List<PlaceBooking> bookings) {
+        bookingsByRack.clear();
+        for (PlaceBooking booking : bookings) {
+            bookingsByRack.computeIfAbsent(booking.getRackId(), id -> new TreeMap<>())
+                    .put(booking.getStartDate(), booking.getEndDate());
+        }
+    }
+
+    public boolean isFree(String rackId, LocalDate from, LocalDate to) {
+        NavigableMap<LocalDate, LocalDate> calendar = bookingsByRack.get(rackId);
+        if (calendar == null) {
+            return true;
+        }
+        synchronized (calendar) {
+            return isFree(calendar, from, to);
+        }
+    }
+
+    /**
+     * Record a committed booking of the window on every rack. Overlaps are rejected
+     * against the place_bookings table before the booking is stored.
+     */
+    public synchronized void add(List<String> rackIds, LocalDate from, LocalDate to) {
+        for (String rackId : rackIds) {
+            NavigableMap<LocalDate, LocalDate> calendar =
+                    bookingsByRack.computeIfAbsent(rackId, id -> new TreeMap<>());
+            synchronized (calendar) {
+                calendar.put(from, to);
+            }
+        }
+    }
+
+    public synchronized void release(List<String> rackIds, LocalDate from, LocalDate to) {
+        for (String rackId : rackIds) {
+            NavigableMap<LocalDate, LocalDate> calendar = bookingsByRack.get(rackId);
+            if (calendar == null) {
+                continue;
+            }
+            synchronized (calendar) {
+                calendar.remove(from, to);
+            }
+        }
+    }
+
+    private static boolean isFree(NavigableMap<LocalDate, LocalDate> calendar, LocalDate from, LocalDate to) {
+        // Intervals do not overlap, so only the latest one starting on or before 'to' can reach 'from'
+        Map.Entry<LocalDate, LocalDate> candidate = calendar.floorEntry(to);
+        return candidate == null || candidate.getValue().isBefore(from);
+    }
+}
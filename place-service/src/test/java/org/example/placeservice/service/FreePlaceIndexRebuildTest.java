@@ -0,0 +1,55 @@
+package org.example.placeservice.service;
+
+import org.example.placeservice.dto.PlaceDTO;
+import org.example.placeservice.model.Place;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Commit callbacks that run before the startup rebuild must not be overwritten by the
+ * older rows it read.
+ */
+class FreePlaceIndexRebuildTest {
+
+    @Test
+    void rebuildKeepsChangesNewerThanTheRead() {
+        FreePlaceIndex index = new FreePlaceIndex();
+        // r1 was taken and r2 freed after the startup read saw them
+        index.remove("r1", 6);
+        index.add(rack("r2", Place.RackStatus.FREE), 4);
+
+        index.rebuild(List.of(
+                row(rack("r1", Place.RackStatus.FREE), 5L),
+                row(rack("r2", Place.RackStatus.OCCUPIED), 3L),
+                row(rack("r3", Place.RackStatus.FREE), 1L)));
+
+        assertTrue(index.isReady());
+        assertEquals(List.of("r2", "r3"), index.getRackIds());
+    }
+
+    @Test
+    void rebuildAppliesRowsNewerThanTheCallbacks() {
+        FreePlaceIndex index = new FreePlaceIndex();
+        index.add(rack("r1", Place.RackStatus.FREE), 2);
+
+        index.rebuild(List.<Object[]>of(row(rack("r1", Place.RackStatus.OCCUPIED), 3L)));
+
+        assertEquals(0, index.size());
+        assertNull(index.remove("r1", 3));
+    }
+
+    private static Object[] row(PlaceDTO place, Long version) {
+        return new Object[]{place, version};
+    }
+
+    private static PlaceDTO rack(String rackId, Place.RackStatus status) {
+        return new PlaceDTO(rackId, "T", 1, Place.RackType.SECURE, status, new BigDecimal("10.00"),
+                100, 100, 100, null);
+    }
+}
@@ -0,0 +1,140 @@
+package org.example.placeservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.placeservice.PlaceServiceApplication;
+import org.example.placeservice.dto.ClaimPlacesRequestDTO;
+import org.example.placeservice.model.Place;
+import org.example.placeservice.repository.PlaceRepository;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Two place-service instances on one shared database, each taking many concurrent claims
+ * from the same pool of free racks: in either locking mode no rack may be handed out twice,
+ * and the claims must not fail while racks are left. The conflict and retry counts of the
+ * two modes are logged for comparison.
+ */
+class PlaceClaimContentionTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlaceClaimContentionTest.class);
+
+    private static final int RACKS = 400;
+    private static final int THREADS = 16;
+    private static final int CLAIMS_PER_THREAD = 10;
+    private static final int RACKS_PER_CLAIM = 2;
+
+    @ParameterizedTest
+    @EnumSource(PlaceUpdateExecutor.LockMode.class)
+    void concurrentClaimsFromTwoInstancesNeverShareARack(PlaceUpdateExecutor.LockMode mode) throws Exception {
+        String database = "contention_" + mode.name().toLowerCase();
+        try (ConfigurableApplicationContext first = startInstance(database, mode);
+             ConfigurableApplicationContext second = startInstance(database, mode)) {
+            PlaceRepository placeRepository = first.getBean(PlaceRepository.class);
+            seedRacks(placeRepository);
+            List<PlaceService> instances = List.of(first.getBean(PlaceService.class), second.getBean(PlaceService.class));
+
+            Map<String, String> claimedBy = new ConcurrentHashMap<>();
+            AtomicInteger duplicates = new AtomicInteger();
+            AtomicInteger failures = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            List<Future<?>> workers = new ArrayList<>();
+            long startedAt = System.nanoTime();
+            for (int t = 0; t < THREADS; t++) {
+                String userId = "user-" + t;
+                PlaceService placeService = instances.get(t % instances.size());
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < CLAIMS_PER_THREAD; i++) {
+                        try {
+                            List<String> placeIds = placeService.claimPlaces(
+                                    new ClaimPlacesRequestDTO("SECURE", RACKS_PER_CLAIM, userId));
+                            for (String placeId : placeIds) {
+                                if (claimedBy.putIfAbsent(placeId, userId) != null) {
+                                    duplicates.incrementAndGet();
+                                }
+                            }
+                        } catch (RuntimeException e) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(60, TimeUnit.SECONDS);
+            }
+            executor.shutdown();
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+            logger.info("{} mode: {} claims in {} ms, {} conflicts, {} retries", mode,
+                    THREADS * CLAIMS_PER_THREAD, elapsedMs,
+                    count(first, second, "place.update.conflicts"), count(first, second, "place.update.retries"));
+
+            assertEquals(0, duplicates.get(), "racks handed out twice");
+            assertEquals(0, failures.get(), "claims failed while free racks were left");
+            assertEquals(THREADS * CLAIMS_PER_THREAD * RACKS_PER_CLAIM, claimedBy.size());
+
+            List<Place> claimed = placeRepository.findAllById(claimedBy.keySet());
+            assertEquals(claimedBy.size(), claimed.size());
+            for (Place place : claimed) {
+                assertEquals(Place.RackStatus.OCCUPIED, place.getStatus(), place.getRackId());
+                assertEquals(claimedBy.get(place.getRackId()), place.getTenantId(), place.getRackId());
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startInstance(String database, PlaceUpdateExecutor.LockMode mode) {
+        return new SpringApplicationBuilder(PlaceServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=update",
+                        "spring.jpa.show-sql=false",
+                        "eureka.client.enabled=false",
+                        "place.concurrency.mode=" + mode.name().toLowerCase())
+                .run();
+    }
+
+    private static void seedRacks(PlaceRepository placeRepository) {
+        List<Place> places = new ArrayList<>();
+        for (int i = 0; i < RACKS; i++) {
+            places.add(new Place(String.format("t%04d", i), "T", i, Place.RackType.SECURE,
+                    Place.RackStatus.FREE, new BigDecimal("10.00"), 100, 100, 100, null));
+        }
+        placeRepository.saveAll(places);
+    }
+
+    private static long count(ConfigurableApplicationContext first, ConfigurableApplicationContext second,
+                              String name) {
+        double total = 0;
+        for (ConfigurableApplicationContext context : List.of(first, second)) {
+            total += context.getBean(MeterRegistry.class).find(name).counters().stream()
+                    .mapToDouble(Counter::count)
+                    .sum();
+        }
+        return (long) total;
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.placeservice.service;
+
+import org.example.placeservice.dto.ClaimPlacesRequestDTO;
+import org.example.placeservice.dto.GivePlacesRequestDTO;
+import org.example.placeservice.model.Place;
+import org.example.placeservice.repository.PlaceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A claim repeated with the same claim key returns the racks it already holds, and releasing
+ * the key frees only racks that are still held under it.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:claim_key;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "eureka.client.enabled=false"
+})
+class PlaceClaimKeyTest {
+
+    @Autowired
+    private PlaceService placeService;
+
+    @Autowired
+    private PlaceRepository placeRepository;
+
+    @BeforeEach
+    void seedRacks() {
+        placeRepository.deleteAll();
+        List<Place> places = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            places.add(new Place(String.format("k%04d", i), "K", i, Place.RackType.SECURE,
+                    Place.RackStatus.FREE, new BigDecimal("10.00"), 100, 100, 100, null));
+        }
+        placeRepository.saveAll(places);
+    }
+
+    @Test
+    void repeatedClaimReturnsTheRacksItHolds() {
+        List<String> first = placeService.claimPlaces(new ClaimPlacesRequestDTO("SECURE", 3, "user-1", "order-1"));
+        List<String> retry = placeService.claimPlaces(new ClaimPlacesRequestDTO("SECURE", 3, "user-1", "order-1"));
+
+        assertEquals(3, first.size());
+        assertEquals(first.stream().sorted().toList(), retry.stream().sorted().toList());
+        assertEquals(3, placeRepository.findAll().stream()
+                .filter(place -> place.getStatus() == Place.RackStatus.OCCUPIED)
+                .count());
+    }
+
+    @Test
+    void releaseFreesOnlyRacksStillHeldUnderTheKey() {
+        List<String> claimed = placeService.claimPlaces(new ClaimPlacesRequestDTO("SECURE", 2, "user-1", "order-1"));
+        String handedOver = claimed.get(0);
+        placeService.makePlacesFree(List.of(handedOver));
+        placeService.givePlacesToUser(new GivePlacesRequestDTO(List.of(handedOver), "user-2"));
+
+        List<String> released = placeService.releaseClaim("order-1");
+
+        assertEquals(List.of(claimed.get(1)), released);
+        Place kept = placeRepository.findById(handedOver).orElseThrow();
+        assertEquals(Place.RackStatus.OCCUPIED, kept.getStatus());
+        assertEquals("user-2", kept.getTenantId());
+        assertTrue(placeService.releaseClaim("order-1").isEmpty());
+    }
+
+    @Test
+    void releasingSeveralClaimsLeavesOtherClaimsAlone() {
+        List<String> first = placeService.claimPlaces(new ClaimPlacesRequestDTO("SECURE", 2, "user-1", "order-1"));
+        List<String> second = placeService.claimPlaces(new ClaimPlacesRequestDTO("SECURE", 1, "user-2", "order-2"));
+        List<String> other = placeService.claimPlaces(new ClaimPlacesRequestDTO("SECURE", 1, "user-3", "order-3"));
+
+        List<String> released = placeService.releaseClaims(List.of("order-1", "order-2"));
+
+        List<String> expected = new ArrayList<>(first);
+        expected.addAll(second);
+        assertEquals(expected.stream().sorted().toList(), released);
+        assertEquals(List.of(other.get(0)), placeService.findClaimedRackIds("order-3"));
+    }
+}
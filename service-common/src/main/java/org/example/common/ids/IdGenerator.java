@@ -0,0 +1,86 @@
+package org.example.common.ids;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.commons.util.InetUtils;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered IDs (Snowflake layout), unique as long as no two running instances share
+ * a node ID.
+ * <p>
+ * Each ID packs 41 bits of milliseconds since 2024-01-01, a 10-bit node ID and a 12-bit
+ * per-millisecond sequence, and is written as 13 Crockford base32 characters after the
+ * prefix. The fixed width keeps string order equal to creation order, so new rows are
+ * appended at the end of the primary-key index instead of landing at random positions.
+ * <p>
+ * The node ID is {@code ids.node-id} when set, otherwise it is derived from this host's
+ * first non-loopback address and the server port. A derived ID is a 10-bit hash that two
+ * instances can share, so it is only accepted while the instance runs alone; see
+ * {@link IdNodeGuard}. Generation is lock-free: a CAS on (millisecond, sequence) hands out
+ * numbers, and when a millisecond's 4096 sequence values run out, or the clock steps
+ * back, the generator continues from the last millisecond it used instead of waiting.
+ */
+public class IdGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdGenerator.class);
+    private static final long UNSET = -1;
+    private static final long EPOCH_MS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final int ENCODED_LENGTH = 13;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private final long nodeId;
+    private final boolean nodeIdConfigured;
+    // (millisecond << SEQUENCE_BITS) | sequence of the last issued ID
+    private final AtomicLong state = new AtomicLong();
+
+    public IdGenerator(long configuredNodeId, int port, InetUtils inetUtils) {
+        if (configuredNodeId != UNSET && (configuredNodeId < 0 || configuredNodeId > MAX_NODE_ID)) {
+            throw new IllegalArgumentException("ids.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeIdConfigured = configuredNodeId != UNSET;
+        if (nodeIdConfigured) {
+            this.nodeId = configuredNodeId;
+        } else {
+            String address = inetUtils.findFirstNonLoopbackHostInfo().getIpAddress() + ":" + port;
+            this.nodeId = (address.hashCode() & Integer.MAX_VALUE) % (MAX_NODE_ID + 1);
+            logger.info("ids.node-id not set, using node ID {} derived from {}", nodeId, address);
+        }
+    }
+
+    public long getNodeId() {
+        return nodeId;
+    }
+
+    public boolean isNodeIdConfigured() {
+        return nodeIdConfigured;
+    }
+
+    public String nextId(String prefix) {
+        long now = System.currentTimeMillis() - EPOCH_MS;
+        while (true) {
+            long last = state.get();
+            // A full sequence carries into the next millisecond
+            long next = now > (last >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : last + 1;
+            if (state.compareAndSet(last, next)) {
+                long millis = next >>> SEQUENCE_BITS;
+                long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+                return prefix + encode((millis << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence);
+            }
+        }
+    }
+
+    private static String encode(long id) {
+        char[] chars = new char[ENCODED_LENGTH];
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.common.ids;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.cloud.commons.util.InetUtils;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Provides the {@link IdGenerator} to every service that depends on this module, along with
+ * the startup check of its node ID against the other registered instances.
+ */
+@AutoConfiguration
+public class IdGeneratorAutoConfiguration {
+
+    @Bean
+    public IdGenerator idGenerator(@Value("${ids.node-id:-1}") long nodeId,
+                                   @Value("${server.port:8080}") int port,
+                                   InetUtils inetUtils) {
+        return new IdGenerator(nodeId, port, inetUtils);
+    }
+
+    @Bean
+    public IdNodeGuard idNodeGuard(IdGenerator idGenerator,
+                                   ObjectProvider<DiscoveryClient> discoveryClient,
+                                   ObjectProvider<Registration> registration,
+                                   @Value("${spring.application.name:application}") String serviceId) {
+        Registration self = registration.getIfAvailable();
+        return new IdNodeGuard(idGenerator, discoveryClient.getIfAvailable(), serviceId,
+                self != null ? self.getInstanceId() : null);
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.common.ids;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.context.event.EventListener;
+
+import java.util.List;
+
+/**
+ * Refuses to start an instance whose node ID could repeat another running instance's,
+ * which would let the two hand out the same IDs.
+ * <p>
+ * Instances advertise {@code ids.node-id} through the "ids-node-id" registry metadata entry.
+ * Once the registry lists other instances of this service, every instance must set the
+ * node ID explicitly (a derived one is only a hash) and no two may use the same value.
+ * The check reads the registry as this instance last fetched it, so two instances started
+ * at the same moment can miss each other: it catches a forgotten or repeated node ID, not
+ * every race.
+ */
+public class IdNodeGuard {
+
+    public static final String NODE_ID_METADATA = "ids-node-id";
+
+    private static final Logger logger = LoggerFactory.getLogger(IdNodeGuard.class);
+
+    private final IdGenerator idGenerator;
+    private final DiscoveryClient discoveryClient;
+    private final String serviceId;
+    private final String instanceId;
+
+    /**
+     * {@code discoveryClient} and {@code instanceId} may be null when the service runs
+     * without a registry; the check is skipped then.
+     */
+    public IdNodeGuard(IdGenerator idGenerator, DiscoveryClient discoveryClient,
+                       String serviceId, String instanceId) {
+        this.idGenerator = idGenerator;
+        this.discoveryClient = discoveryClient;
+        this.serviceId = serviceId;
+        this.instanceId = instanceId;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkRunningInstances() {
+        if (discoveryClient == null) {
+            return;
+        }
+        check(discoveryClient.getInstances(serviceId));
+    }
+
+    /**
+     * Throws IllegalStateException if this instance's node ID may collide with one of
+     * the other listed instances.
+     */
+    public void check(List<ServiceInstance> instances) {
+        String nodeId = Long.toString(idGenerator.getNodeId());
+        for (ServiceInstance other : instances) {
+            if (instanceId != null && instanceId.equals(other.getInstanceId())) {
+                continue;
+            }
+            String otherNodeId = other.getMetadata().get(NODE_ID_METADATA);
+            if (!idGenerator.isNodeIdConfigured() || otherNodeId == null || otherNodeId.isBlank()) {
+                throw new IllegalStateException("Several " + serviceId + " instances are running ("
+                        + other.getInstanceId() + " is another); set a distinct ids.node-id on every instance");
+            }
+            if (otherNodeId.trim().equals(nodeId)) {
+                throw new IllegalStateException("ids.node-id " + nodeId + " is already used by "
+                        + serviceId + " instance " + other.getInstanceId());
+            }
+        }
+        logger.debug("Node ID {} checked against {} registered instances", nodeId, instances.size());
+    }
+}
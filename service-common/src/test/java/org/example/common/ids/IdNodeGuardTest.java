@@ -0,0 +1,67 @@
+package org.example.common.ids;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.commons.util.InetUtils;
+import org.springframework.cloud.commons.util.InetUtilsProperties;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IdNodeGuardTest {
+
+    private static final InetUtils INET_UTILS = new InetUtils(new InetUtilsProperties());
+
+    @Test
+    void derivedNodeIdIsAcceptedWhileRunningAlone() {
+        IdNodeGuard guard = guard(-1);
+
+        assertDoesNotThrow(() -> guard.check(List.of(instance("order-service:8082", null))));
+    }
+
+    @Test
+    void derivedNodeIdIsRejectedNextToAnotherInstance() {
+        IdNodeGuard guard = guard(-1);
+
+        assertThrows(IllegalStateException.class,
+                () -> guard.check(List.of(instance("order-service:8092", "2"))));
+    }
+
+    @Test
+    void configuredNodeIdIsRejectedNextToAnInstanceWithoutOne() {
+        IdNodeGuard guard = guard(1);
+
+        assertThrows(IllegalStateException.class,
+                () -> guard.check(List.of(instance("order-service:8092", null))));
+    }
+
+    @Test
+    void repeatedNodeIdIsRejected() {
+        IdNodeGuard guard = guard(1);
+
+        assertThrows(IllegalStateException.class,
+                () -> guard.check(List.of(instance("order-service:8092", "1"))));
+    }
+
+    @Test
+    void distinctNodeIdsAreAccepted() {
+        IdNodeGuard guard = guard(1);
+
+        assertDoesNotThrow(() -> guard.check(List.of(
+                instance("order-service:8082", "1"), instance("order-service:8092", "2"))));
+    }
+
+    private static IdNodeGuard guard(long nodeId) {
+        return new IdNodeGuard(new IdGenerator(nodeId, 8082, INET_UTILS), null,
+                "order-service", "order-service:8082");
+    }
+
+    private static ServiceInstance instance(String instanceId, String nodeId) {
+        Map<String, String> metadata = nodeId != null ? Map.of(IdNodeGuard.NODE_ID_METADATA, nodeId) : Map.of();
+        return new DefaultServiceInstance(instanceId, "order-service", "10.0.0.1", 8082, false, metadata);
+    }
+}
@@ -2,6 +2,9 @@
 echo Starting all microservices with Service Discovery and API Gateway...
 echo.
 
+echo Installing shared service code (service-common)...
+call mvn -q install -DskipTests -pl service-common -am
+
 echo [1/5] Starting Discovery Service (Eureka Server)...
 start "Discovery Service" cmd /k "cd discovery-service && mvn spring-boot:run"
 echo Waiting for Discovery Service to start (port 8761)...
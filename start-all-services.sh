@@ -3,6 +3,9 @@
 echo "Starting all microservices with Service Discovery and API Gateway..."
 echo
 
+echo "Installing shared service code (service-common)..."
+mvn -q install -DskipTests -pl service-common -am
+
 echo "[1/5] Starting Discovery Service (Eureka Server)..."
 cd discovery-service
 mvn spring-boot:run &
@@ -4,6 +4,7 @@ import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 import org.example.webclient.dto.OrderDTO;
 import org.example.webclient.dto.OrderDetailsDTO;
+import org.example.webclient.dto.OrderPageDTO;
 import org.example.webclient.dto.PaymentDTO;
 import org.example.webclient.service.WarehouseWebService;
 import org.slf4j.Logger;
@@ -15,13 +16,14 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.UUID;
 
 @Controller
 @RequestMapping("/orders")
 public class OrderController {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderController.class);
+    private static final int ORDERS_PAGE_SIZE = 50;
     private final WarehouseWebService warehouseService;
 
     public OrderController(WarehouseWebService warehouseService) {
@@ -41,19 +43,19 @@ public class OrderController {
     }
 
     @GetMapping
-    public String listOrders(HttpSession session, Model model) {
+    public String listOrders(@RequestParam(required = false) String after,
+                             HttpSession session, Model model) {
         String userId = (String) session.getAttribute("userId");
         logger.info("Fetching orders for user: {}", userId);
         
-        List<OrderDTO> allOrders = warehouseService.getAllOrders();
-        // Filter orders to show only the logged-in user's orders
-        List<OrderDTO> userOrders = allOrders.stream()
-                .filter(order -> order.getUserId().equals(userId))
-                .collect(Collectors.toList());
+        OrderPageDTO page = warehouseService.getOrdersByUser(userId, after, ORDERS_PAGE_SIZE);
+        List<OrderDTO> userOrders = page != null ? page.getItems() : null;
         
         model.addAttribute("orders", userOrders);
+        model.addAttribute("nextCursor", page != null ? page.getNextCursor() : null);
+        model.addAttribute("firstPage", after == null || after.isEmpty());
         
-        logger.info("Displaying {} orders for user {}", userOrders.size(), userId);
+        logger.info("Displaying {} orders for user {}", userOrders != null ? userOrders.size() : 0, userId);
         return "orders/list";
     }
 
@@ -63,12 +65,15 @@ public class OrderController {
         // Pre-fill user ID from session
         order.setUserId((String) session.getAttribute("userId"));
         model.addAttribute("order", order);
+        // One key per rendered form, so a double submit creates the order only once
+        model.addAttribute("idempotencyKey", UUID.randomUUID().toString());
         return "orders/create";
     }
 
     @PostMapping("/create")
     public String createOrder(@Valid @ModelAttribute("order") OrderDTO orderDTO,
                             BindingResult bindingResult,
+                            @RequestParam(required = false) String idempotencyKey,
                             HttpSession session,
                             RedirectAttributes redirectAttributes,
                             Model model) {
@@ -77,6 +82,7 @@ public class OrderController {
         
         // Ensure user can only create orders for themselves
         orderDTO.setUserId(loggedInUserId);
+        model.addAttribute("idempotencyKey", idempotencyKey);
         
         // Check for validation errors
         if (bindingResult.hasErrors()) {
@@ -93,7 +99,7 @@ public class OrderController {
 
         try {
             logger.info("Creating order for user: {}", orderDTO.getUserId());
-            OrderDTO createdOrder = warehouseService.createOrder(orderDTO);
+            OrderDTO createdOrder = warehouseService.createOrder(orderDTO, idempotencyKey);
             
             redirectAttributes.addFlashAttribute("successMessage", 
                     "Order created successfully! Order ID: " + createdOrder.getOrderId());
@@ -154,7 +160,7 @@ public class OrderController {
             
             warehouseService.confirmOrder(orderId);
             redirectAttributes.addFlashAttribute("successMessage", 
-                    "Order confirmed successfully!");
+                    "Order confirmation started. Places will be assigned shortly.");
             
             return "redirect:/orders/" + orderId;
         } catch (Exception e) {
@@ -2,6 +2,7 @@ package org.example.webclient.controller;
 
 import jakarta.servlet.http.HttpSession;
 import org.example.webclient.dto.PlaceDTO;
+import org.example.webclient.dto.PlacePageDTO;
 import org.example.webclient.service.WarehouseWebService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,6 +11,7 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import java.util.List;
 
@@ -18,6 +20,7 @@ import java.util.List;
 public class PlaceController {
 
     private static final Logger logger = LoggerFactory.getLogger(PlaceController.class);
+    private static final int FREE_PLACES_PAGE_SIZE = 50;
     private final WarehouseWebService warehouseService;
 
     public PlaceController(WarehouseWebService warehouseService) {
@@ -25,11 +28,15 @@ public class PlaceController {
     }
 
     @GetMapping("/free")
-    public String showFreePlaces(HttpSession session, Model model) {
-        logger.info("Fetching free places");
+    public String showFreePlaces(@RequestParam(required = false) String after,
+                                 HttpSession session, Model model) {
+        logger.info("Fetching free places after '{}'", after);
         
-        List<PlaceDTO> freePlaces = warehouseService.getFreePlaces();
+        PlacePageDTO page = warehouseService.getFreePlacesPage(after, FREE_PLACES_PAGE_SIZE);
+        List<PlaceDTO> freePlaces = page != null ? page.getItems() : null;
         model.addAttribute("places", freePlaces);
+        model.addAttribute("nextCursor", page != null ? page.getNextCursor() : null);
+        model.addAttribute("firstPage", after == null || after.isEmpty());
         
         logger.info("Displaying {} free places", freePlaces != null ? freePlaces.size() : 0);
         return "places/free";
@@ -0,0 +1,25 @@
+package org.example.webclient.dto;
+
+import java.util.List;
+
+public class PlacePageDTO {
+    private List<PlaceDTO> items;
+    private String nextCursor;
+
+    // Getters and Setters
+    public List<PlaceDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<PlaceDTO> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
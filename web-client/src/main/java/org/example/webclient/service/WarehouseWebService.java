@@ -1,13 +1,16 @@
 package org.example.webclient.service;
 
 import org.example.webclient.dto.OrderDTO;
+import org.example.webclient.dto.OrderPageDTO;
 import org.example.webclient.dto.PaymentDTO;
 import org.example.webclient.dto.PlaceDTO;
+import org.example.webclient.dto.PlacePageDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
@@ -35,28 +38,33 @@ public class WarehouseWebService {
 
     // ==================== PLACE SERVICE ENDPOINTS ====================
 
-    public List<PlaceDTO> getFreePlaces() {
-        String url = gatewayUrl + "/api/places/free";
-        logger.debug("Fetching free places from: {}", url);
-        
-        ResponseEntity<List<PlaceDTO>> response = restTemplate.exchange(
-                url,
-                HttpMethod.GET,
-                null,
-                new ParameterizedTypeReference<List<PlaceDTO>>() {}
-        );
-        
-        logger.debug("Retrieved {} free places", response.getBody() != null ? response.getBody().size() : 0);
+    public PlacePageDTO getFreePlacesPage(String after, int size) {
+        String url = gatewayUrl + "/api/places/free/page?after={after}&size={size}";
+        logger.debug("Fetching free places page after '{}' from: {}", after, url);
+
+        Map<String, String> params = new HashMap<>();
+        params.put("after", after != null ? after : "");
+        params.put("size", String.valueOf(size));
+
+        ResponseEntity<PlacePageDTO> response = restTemplate.getForEntity(url, PlacePageDTO.class, params);
+
+        logger.debug("Retrieved {} free places",
+                response.getBody() != null && response.getBody().getItems() != null
+                        ? response.getBody().getItems().size() : 0);
         return response.getBody();
     }
 
     // ==================== ORDER SERVICE ENDPOINTS ====================
 
-    public OrderDTO createOrder(OrderDTO orderDTO) {
+    public OrderDTO createOrder(OrderDTO orderDTO, String idempotencyKey) {
         String url = gatewayUrl + "/api/orders";
         logger.debug("Creating order for user: {}", orderDTO.getUserId());
         
-        HttpEntity<OrderDTO> request = new HttpEntity<>(orderDTO);
+        HttpHeaders headers = new HttpHeaders();
+        if (idempotencyKey != null && !idempotencyKey.isEmpty()) {
+            headers.set("Idempotency-Key", idempotencyKey);
+        }
+        HttpEntity<OrderDTO> request = new HttpEntity<>(orderDTO, headers);
         ResponseEntity<OrderDTO> response = restTemplate.postForEntity(url, request, OrderDTO.class);
         
         logger.info("Order created with ID: {}", response.getBody() != null ? response.getBody().getOrderId() : "null");
@@ -83,11 +91,21 @@ public class WarehouseWebService {
         return response.getBody();
     }
 
-    public List<OrderDTO> getAllOrders() {
-        // Using a very wide date range to get all orders
-        LocalDate startDate = LocalDate.of(2000, 1, 1);
-        LocalDate endDate = LocalDate.of(2100, 12, 31);
-        return getOrdersByDateRange(startDate, endDate);
+    public OrderPageDTO getOrdersByUser(String userId, String cursor, int size) {
+        String url = gatewayUrl + "/api/orders/user/{userId}?cursor={cursor}&size={size}";
+        logger.debug("Fetching orders of user {} after '{}'", userId, cursor);
+
+        Map<String, String> params = new HashMap<>();
+        params.put("userId", userId);
+        params.put("cursor", cursor != null ? cursor : "");
+        params.put("size", String.valueOf(size));
+
+        ResponseEntity<OrderPageDTO> response = restTemplate.getForEntity(url, OrderPageDTO.class, params);
+
+        logger.debug("Retrieved {} orders",
+                response.getBody() != null && response.getBody().getItems() != null
+                        ? response.getBody().getItems().size() : 0);
+        return response.getBody();
     }
 
     public OrderDTO getOrderById(String orderId) {
@@ -118,7 +136,7 @@ public class WarehouseWebService {
                 params
         );
         
-        logger.info("Order confirmed: {}", orderId);
+        logger.info("Order confirmation requested: {}", orderId);
         return response.getBody();
     }
 